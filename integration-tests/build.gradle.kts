@@ -28,4 +28,15 @@ tasks {
     test {
         useJUnitPlatform()
     }
+
+    register<JavaExec>("datamuseStandIn") {
+        description = "Runs a local Datamuse stand-in with configurable latency & faults"
+        classpath = sourceSets.test.get().runtimeClasspath
+        mainClass.set("uk.co.aaronvaz.carsapi.integration.datamuse.DatamuseStandIn")
+        systemProperties(
+            System.getProperties()
+                .filterKeys { it.toString().startsWith("datamuse.stand-in.") }
+                .mapKeys { it.key.toString() }
+        )
+    }
 }
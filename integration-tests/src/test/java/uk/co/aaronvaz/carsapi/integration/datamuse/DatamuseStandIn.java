@@ -0,0 +1,205 @@
+package uk.co.aaronvaz.carsapi.integration.datamuse;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.http.DelayDistribution;
+import com.github.tomakehurst.wiremock.http.LogNormal;
+import com.github.tomakehurst.wiremock.http.UniformDistribution;
+import java.time.Duration;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Local stand-in for the Datamuse {@code /words?sl=} api. Answers with generated sounds like words
+ * and injects latency, error responses, connection faults, timeouts & slow-drip bodies at the
+ * configured rates, so enrichment, caches & timeouts can be exercised without any network
+ *
+ * <p>Can be used as a test fixture or run on its own with {@code ./gradlew
+ * :integration-tests:datamuseStandIn}, configured through {@code datamuse.stand-in.*} system
+ * properties, see {@link #main(String[])}
+ */
+public class DatamuseStandIn implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DatamuseStandIn.class);
+
+    private final WireMockServer server;
+
+    public DatamuseStandIn(final Settings settings) {
+        this.server =
+                new WireMockServer(
+                        options()
+                                .port(settings.port)
+                                .extensions(new DatamuseStandInTransformer(settings)));
+        server.stubFor(
+                get(urlPathEqualTo("/words"))
+                        .willReturn(
+                                aResponse()
+                                        .withRandomDelay(settings.latency)
+                                        .withTransformers(DatamuseStandInTransformer.NAME)));
+    }
+
+    /**
+     * Run the stand-in until the process is stopped. Settings are read from {@code
+     * datamuse.stand-in.*} system properties, e.g.
+     *
+     * <pre>
+     *     ./gradlew :integration-tests:datamuseStandIn \
+     *         -Ddatamuse.stand-in.median-latency=150ms \
+     *         -Ddatamuse.stand-in.error-rate=0.05
+     * </pre>
+     */
+    public static void main(final String[] args) {
+        final DatamuseStandIn standIn = new DatamuseStandIn(Settings.fromSystemProperties());
+        standIn.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(standIn::close));
+        LOGGER.info("Datamuse stand-in listening on {}", standIn.baseUrl());
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public String baseUrl() {
+        return server.baseUrl();
+    }
+
+    @Override
+    public void close() {
+        server.stop();
+    }
+
+    /** How the stand-in behaves, every rate is the fraction of requests between 0 and 1 */
+    public static class Settings {
+        private int port = 8089;
+
+        private int maxResults = 100;
+
+        private DelayDistribution latency = new UniformDistribution(0, 0);
+
+        private double errorRate;
+
+        private double faultRate;
+
+        private double timeoutRate;
+
+        private Duration timeout = Duration.ofSeconds(30);
+
+        private double slowDripRate;
+
+        private Duration slowDrip = Duration.ofSeconds(5);
+
+        /** Port to listen on, 0 for a random free port. Defaults to 8089 */
+        public Settings port(final int port) {
+            this.port = port;
+            return this;
+        }
+
+        /** Words returned when a request has no {@code max} parameter. Defaults to 100 */
+        public Settings maxResults(final int maxResults) {
+            this.maxResults = maxResults;
+            return this;
+        }
+
+        /** Log normal latency added to every response. Defaults to no latency */
+        public Settings latency(final Duration median, final double sigma) {
+            this.latency = new LogNormal(median.toMillis(), sigma);
+            return this;
+        }
+
+        /** Uniformly distributed latency added to every response. Defaults to no latency */
+        public Settings latency(final Duration lower, final Duration upper) {
+            this.latency =
+                    new UniformDistribution(
+                            Math.toIntExact(lower.toMillis()), Math.toIntExact(upper.toMillis()));
+            return this;
+        }
+
+        /** Rate of 500 & 503 responses */
+        public Settings errorRate(final double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        /** Rate of connections reset or closed without a response */
+        public Settings faultRate(final double faultRate) {
+            this.faultRate = faultRate;
+            return this;
+        }
+
+        /** Rate of responses held back for the given delay, long enough to time the client out */
+        public Settings timeoutRate(final double timeoutRate, final Duration timeout) {
+            this.timeoutRate = timeoutRate;
+            this.timeout = timeout;
+            return this;
+        }
+
+        /** Rate of responses whose body is dribbled out in chunks over the given duration */
+        public Settings slowDripRate(final double slowDripRate, final Duration slowDrip) {
+            this.slowDripRate = slowDripRate;
+            this.slowDrip = slowDrip;
+            return this;
+        }
+
+        int getMaxResults() {
+            return maxResults;
+        }
+
+        double getErrorRate() {
+            return errorRate;
+        }
+
+        double getFaultRate() {
+            return faultRate;
+        }
+
+        double getTimeoutRate() {
+            return timeoutRate;
+        }
+
+        Duration getTimeout() {
+            return timeout;
+        }
+
+        double getSlowDripRate() {
+            return slowDripRate;
+        }
+
+        Duration getSlowDrip() {
+            return slowDrip;
+        }
+
+        static Settings fromSystemProperties() {
+            final Settings settings =
+                    new Settings()
+                            .port(Integer.parseInt(property("port", "8089")))
+                            .maxResults(Integer.parseInt(property("max-results", "100")))
+                            .errorRate(Double.parseDouble(property("error-rate", "0")))
+                            .faultRate(Double.parseDouble(property("fault-rate", "0")))
+                            .timeoutRate(
+                                    Double.parseDouble(property("timeout-rate", "0")),
+                                    DurationStyle.detectAndParse(property("timeout", "30s")))
+                            .slowDripRate(
+                                    Double.parseDouble(property("slow-drip-rate", "0")),
+                                    DurationStyle.detectAndParse(property("slow-drip", "5s")));
+
+            final String medianLatency = property("median-latency", null);
+            if (medianLatency != null) {
+                settings.latency(
+                        DurationStyle.detectAndParse(medianLatency),
+                        Double.parseDouble(property("latency-sigma", "0.5")));
+            }
+
+            return settings;
+        }
+
+        private static String property(final String name, final String defaultValue) {
+            return Objects.requireNonNullElse(
+                    System.getProperty("datamuse.stand-in." + name), defaultValue);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package uk.co.aaronvaz.carsapi.integration.datamuse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import org.json.JSONArray;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class DatamuseStandInTest {
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private DatamuseStandIn standIn;
+
+    @AfterEach
+    void tearDown() {
+        standIn.close();
+    }
+
+    @Test
+    void soundsLike_NoFaults_GeneratedWordsReturned() throws Exception {
+        // given
+        start(new DatamuseStandIn.Settings());
+
+        // when
+        final HttpResponse<String> response = get("/words?sl=focus&max=3");
+
+        // then
+        assertEquals(200, response.statusCode());
+
+        final JSONArray words = new JSONArray(response.body());
+        assertEquals(3, words.length());
+        assertEquals("focus", words.getJSONObject(0).getString("word"));
+        assertTrue(
+                words.getJSONObject(0).getInt("score") > words.getJSONObject(1).getInt("score"));
+    }
+
+    @Test
+    void soundsLike_NoMaxParameter_DefaultMaxResultsReturned() throws Exception {
+        // given
+        start(new DatamuseStandIn.Settings().maxResults(7));
+
+        // when
+        final HttpResponse<String> response = get("/words?sl=fiesta");
+
+        // then
+        assertEquals(7, new JSONArray(response.body()).length());
+    }
+
+    @Test
+    void soundsLike_EveryRequestErrors_ServerErrorReturned() throws Exception {
+        // given
+        start(new DatamuseStandIn.Settings().errorRate(1));
+
+        // when
+        final HttpResponse<String> response = get("/words?sl=focus&max=3");
+
+        // then
+        assertTrue(response.statusCode() >= 500);
+    }
+
+    @Test
+    void soundsLike_EveryRequestFaults_ConnectionFails() {
+        // given
+        start(new DatamuseStandIn.Settings().faultRate(1));
+
+        // then
+        assertThrows(IOException.class, () -> get("/words?sl=focus&max=3"));
+    }
+
+    @Test
+    void soundsLike_EveryRequestTimesOut_ClientTimesOut() {
+        // given
+        start(new DatamuseStandIn.Settings().timeoutRate(1, Duration.ofSeconds(5)));
+
+        // then
+        assertThrows(HttpTimeoutException.class, () -> get("/words?sl=focus&max=3"));
+    }
+
+    @Test
+    void soundsLike_EveryRequestSlowDrips_FullBodyReturnedAfterDelay() throws Exception {
+        // given
+        start(new DatamuseStandIn.Settings().slowDripRate(1, Duration.ofMillis(500)));
+
+        // when
+        final long start = System.nanoTime();
+        final HttpResponse<String> response = get("/words?sl=focus&max=3");
+
+        // then
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 400);
+        assertEquals(3, new JSONArray(response.body()).length());
+    }
+
+    @Test
+    void soundsLike_LatencyConfigured_ResponseDelayed() throws Exception {
+        // given
+        start(
+                new DatamuseStandIn.Settings()
+                        .latency(Duration.ofMillis(300), Duration.ofMillis(400)));
+
+        // when
+        final long start = System.nanoTime();
+        get("/words?sl=focus&max=3");
+
+        // then
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 300);
+    }
+
+    private void start(final DatamuseStandIn.Settings settings) {
+        standIn = new DatamuseStandIn(settings.port(0));
+        standIn.start();
+    }
+
+    private HttpResponse<String> get(final String path) throws IOException, InterruptedException {
+        final HttpRequest request =
+                HttpRequest.newBuilder(URI.create(standIn.baseUrl() + path))
+                        .timeout(Duration.ofSeconds(2))
+                        .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,128 @@
+package uk.co.aaronvaz.carsapi.integration.datamuse;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.http.QueryParameter;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import java.io.UncheckedIOException;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Turns every {@code /words} request into one of an error, a connection fault, a timeout, a slow
+ * drip or a generated list of sounds like words, picked at random according to the {@link
+ * DatamuseStandIn.Settings} rates
+ */
+class DatamuseStandInTransformer extends ResponseDefinitionTransformer {
+    static final String NAME = "datamuse-stand-in";
+
+    private static final Fault[] FAULTS = {
+        Fault.CONNECTION_RESET_BY_PEER, Fault.EMPTY_RESPONSE, Fault.RANDOM_DATA_THEN_CLOSE
+    };
+
+    private static final int[] ERROR_STATUSES = {500, 503};
+
+    private static final String VOWELS = "aeiouy";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final DatamuseStandIn.Settings settings;
+
+    DatamuseStandInTransformer(final DatamuseStandIn.Settings settings) {
+        this.settings = settings;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    @Override
+    public ResponseDefinition transform(
+            final Request request,
+            final ResponseDefinition responseDefinition,
+            final FileSource files,
+            final Parameters parameters) {
+        final Random random = ThreadLocalRandom.current();
+        final ResponseDefinitionBuilder response =
+                ResponseDefinitionBuilder.like(responseDefinition);
+
+        double roll = random.nextDouble();
+        if ((roll -= settings.getErrorRate()) < 0) {
+            return response.withStatus(ERROR_STATUSES[random.nextInt(ERROR_STATUSES.length)])
+                    .build();
+        }
+
+        if ((roll -= settings.getFaultRate()) < 0) {
+            return response.withFault(FAULTS[random.nextInt(FAULTS.length)]).build();
+        }
+
+        final String word = queryParameter(request, "sl", "word");
+        final int max = Integer.parseInt(queryParameter(request, "max", settings.getMaxResults()));
+        response.withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withBody(soundsLike(word, max));
+
+        if ((roll -= settings.getTimeoutRate()) < 0) {
+            response.withFixedDelay(Math.toIntExact(settings.getTimeout().toMillis()));
+        } else if ((roll -= settings.getSlowDripRate()) < 0) {
+            response.withChunkedDribbleDelay(
+                    max + 2, Math.toIntExact(settings.getSlowDrip().toMillis()));
+        }
+
+        return response.build();
+    }
+
+    /**
+     * Generate a Datamuse style json array of {@code max} words that sound like the given word,
+     * with descending scores so ranking can be checked
+     */
+    static String soundsLike(final String word, final int max) {
+        final ArrayNode words = OBJECT_MAPPER.createArrayNode();
+        IntStream.range(0, max)
+                .forEach(
+                        i ->
+                                words.addObject()
+                                        .put("word", variant(word, i))
+                                        .put("score", 1000 - i)
+                                        .put("numSyllables", syllables(word)));
+
+        try {
+            return OBJECT_MAPPER.writeValueAsString(words);
+        } catch (final JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String variant(final String word, final int i) {
+        if (i == 0) {
+            return word;
+        }
+
+        final char vowel = VOWELS.charAt(i % VOWELS.length());
+        return word + vowel + (i / VOWELS.length() == 0 ? "" : i / VOWELS.length());
+    }
+
+    private static long syllables(final String word) {
+        return Math.max(1, word.chars().filter(c -> VOWELS.indexOf(c) >= 0).count());
+    }
+
+    private static String queryParameter(
+            final Request request, final String name, final Object defaultValue) {
+        final QueryParameter parameter = request.queryParameter(name);
+        return parameter.isPresent() ? parameter.firstValue() : String.valueOf(defaultValue);
+    }
+}
@@ -3,11 +3,18 @@ package uk.co.aaronvaz.carsapi.integration.tests;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.net.URI;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
@@ -21,6 +28,7 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.DirtiesContext;
 import uk.co.aaronvaz.carsapi.CarsApiApplication;
@@ -99,6 +107,42 @@ public class CarsRestApiV1IntegrationTest {
         assertFalse(response.getHeaders().containsKey(HttpHeaders.LOCATION));
     }
 
+    @Test
+    void addAll_Ndjson_EachCarCreatedOrRejected() throws JSONException {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+
+        final String request =
+                new JSONObject(createRequest())
+                        + "\n"
+                        + new JSONObject(Map.of("make", "Ford", "model", "Kuga"))
+                        + "\n"
+                        + new JSONObject(updateRequest())
+                        + "\n";
+
+        // when
+        final ResponseEntity<String> response =
+                testRestTemplate.postForEntity(
+                        "/api/v1/cars/_bulk", new HttpEntity<>(request, headers), String.class);
+
+        // then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        final JSONArray items = new JSONArray(response.getBody());
+        assertEquals(3, items.length());
+        assertEquals(201, items.getJSONObject(0).getInt("status"));
+        assertEquals(400, items.getJSONObject(1).getInt("status"));
+        assertEquals(201, items.getJSONObject(2).getInt("status"));
+
+        final String location = items.getJSONObject(0).getString("location");
+        final String id = items.getJSONObject(0).getString("id");
+        final ResponseEntity<String> created =
+                testRestTemplate.getForEntity(URI.create(location), String.class);
+        assertEquals(HttpStatus.OK, created.getStatusCode());
+        JSONAssert.assertEquals(
+                jsonObjectFromRequest(id, createRequest()), created.getBody(), true);
+    }
+
     @Test
     void retrieve_HappyPath_200Ok() throws JSONException {
         // given
@@ -357,6 +401,140 @@ public class CarsRestApiV1IntegrationTest {
         JSONAssert.assertEquals(expectedBody, response.getBody(), true);
     }
 
+    @Test
+    void findByMake_DifferentCase_200Ok() throws JSONException {
+        final Map<String, Object> createRequest = createRequest();
+        final URI retrieveLocation =
+                testRestTemplate.postForLocation("/api/v1/cars", createRequest);
+
+        final String id = getIdFromLocation(retrieveLocation);
+
+        // when
+        final ResponseEntity<String> response =
+                testRestTemplate.getForEntity("/api/v1/cars/make/fORD", String.class);
+
+        // then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        final String expectedBody = jsonArrayFromRequest(id, createRequest);
+        JSONAssert.assertEquals(expectedBody, response.getBody(), true);
+    }
+
+    @Test
+    void findByMake_MoreCarsThanLimit_PagesFollowedByNextLink() throws JSONException {
+        testRestTemplate.postForLocation("/api/v1/cars", createRequest());
+        testRestTemplate.postForLocation("/api/v1/cars", createRequest());
+        testRestTemplate.postForLocation("/api/v1/cars", updateRequest());
+
+        // when
+        final ResponseEntity<String> firstPage =
+                testRestTemplate.getForEntity("/api/v1/cars/make/Ford?limit=2", String.class);
+        final String nextLink = firstPage.getHeaders().getFirst(HttpHeaders.LINK);
+        assertNotNull(nextLink);
+
+        final String nextPageUri = nextLink.substring(1, nextLink.indexOf('>'));
+        final ResponseEntity<String> secondPage =
+                testRestTemplate.getForEntity(URI.create(nextPageUri), String.class);
+
+        // then
+        assertEquals(HttpStatus.OK, firstPage.getStatusCode());
+        assertTrue(nextLink.endsWith(">; rel=\"next\""));
+        assertEquals(HttpStatus.OK, secondPage.getStatusCode());
+        assertFalse(secondPage.getHeaders().containsKey(HttpHeaders.LINK));
+
+        final JSONArray firstCars = new JSONArray(firstPage.getBody());
+        final JSONArray secondCars = new JSONArray(secondPage.getBody());
+        assertEquals(2, firstCars.length());
+        assertEquals(1, secondCars.length());
+
+        final Set<String> ids = new HashSet<>();
+        for (final JSONArray cars : List.of(firstCars, secondCars)) {
+            for (int i = 0; i < cars.length(); i++) {
+                ids.add(cars.getJSONObject(i).getString("id"));
+            }
+        }
+        assertEquals(3, ids.size());
+    }
+
+    @Test
+    void findByMake_NdjsonAccepted_CarPerLine() throws JSONException {
+        final String firstId =
+                getIdFromLocation(
+                        testRestTemplate.postForLocation("/api/v1/cars", createRequest()));
+        final String secondId =
+                getIdFromLocation(
+                        testRestTemplate.postForLocation("/api/v1/cars", updateRequest()));
+
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+
+        // when
+        final ResponseEntity<String> response =
+                testRestTemplate.exchange(
+                        "/api/v1/cars/make/Ford",
+                        HttpMethod.GET,
+                        new HttpEntity<>(headers),
+                        String.class);
+
+        // then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+
+        final String[] lines = response.getBody().split("\n");
+        assertEquals(2, lines.length);
+
+        final Set<String> ids = new HashSet<>();
+        for (final String line : lines) {
+            ids.add(new JSONObject(line).getString("id"));
+        }
+        assertEquals(Set.of(firstId, secondId), ids);
+    }
+
+    @Test
+    void findByMake_MoreCarsThanOneBatch_EveryCarStreamed() {
+        final HttpHeaders bulkHeaders = new HttpHeaders();
+        bulkHeaders.setContentType(MediaType.APPLICATION_NDJSON);
+        final String request =
+                IntStream.range(0, 250)
+                        .mapToObj(i -> new JSONObject(createRequest()) + "\n")
+                        .collect(Collectors.joining());
+        testRestTemplate.postForEntity(
+                "/api/v1/cars/_bulk", new HttpEntity<>(request, bulkHeaders), String.class);
+
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+
+        // when
+        final ResponseEntity<String> response =
+                testRestTemplate.exchange(
+                        "/api/v1/cars/make/Ford?homophones=false",
+                        HttpMethod.GET,
+                        new HttpEntity<>(headers),
+                        String.class);
+
+        // then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(250, response.getBody().split("\n").length);
+    }
+
+    @Test
+    void findByMake_StreamParam_JsonArrayStreamed() throws JSONException {
+        final Map<String, Object> createRequest = createRequest();
+        final String id =
+                getIdFromLocation(testRestTemplate.postForLocation("/api/v1/cars", createRequest));
+
+        // when
+        final ResponseEntity<String> response =
+                testRestTemplate.getForEntity("/api/v1/cars/make/Ford?stream=true", String.class);
+
+        // then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.LINK));
+
+        final String expectedBody = jsonArrayFromRequest(id, createRequest);
+        JSONAssert.assertEquals(expectedBody, response.getBody(), true);
+    }
+
     @Test
     void findByMake_NoMatches_200Ok() throws JSONException {
         final String make = "Nissan";
@@ -409,4 +587,39 @@ public class CarsRestApiV1IntegrationTest {
 
         JSONAssert.assertEquals("[]", response.getBody(), true);
     }
+
+    @Test
+    void findBySoundsLike_HappyPath_200Ok() throws JSONException {
+        final Map<String, Object> createRequest = createRequest();
+        final URI retrieveLocation =
+                testRestTemplate.postForLocation("/api/v1/cars", createRequest);
+
+        final String id = getIdFromLocation(retrieveLocation);
+
+        // when
+        final ResponseEntity<String> response =
+                testRestTemplate.getForEntity("/api/v1/cars/sounds-like/fokus", String.class);
+
+        // then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        final String expectedBody = jsonArrayFromRequest(id, createRequest);
+        JSONAssert.assertEquals(expectedBody, response.getBody(), true);
+    }
+
+    @Test
+    void findBySoundsLike_ModelUpdated_OnlyNewModelMatches() throws JSONException {
+        final URI retrieveLocation =
+                testRestTemplate.postForLocation("/api/v1/cars", createRequest());
+        testRestTemplate.put(retrieveLocation, updateRequest());
+
+        // when
+        final ResponseEntity<String> response =
+                testRestTemplate.getForEntity("/api/v1/cars/sounds-like/fokus", String.class);
+
+        // then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        JSONAssert.assertEquals("[]", response.getBody(), true);
+    }
 }
@@ -16,6 +16,12 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-validation")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    implementation("commons-codec:commons-codec")
+    implementation("org.apache.httpcomponents:httpclient")
+    implementation("io.github.resilience4j:resilience4j-circuitbreaker:1.7.1")
+    implementation("io.github.resilience4j:resilience4j-micrometer:1.7.1")
     runtimeOnly("com.h2database:h2")
 
     testImplementation("org.springframework.boot:spring-boot-starter-test")
@@ -0,0 +1,35 @@
+package uk.co.aaronvaz.carsapi;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+/**
+ * Applies the async timeout a handler set for its request with {@link #setTimeout(Duration)}.
+ * Async requests without one keep {@code spring.mvc.async.request-timeout}
+ */
+class AsyncTimeoutInterceptor implements CallableProcessingInterceptor {
+
+    private static final String TIMEOUT_ATTRIBUTE =
+            AsyncTimeoutInterceptor.class.getName() + ".TIMEOUT";
+
+    /** Set the async timeout of the current request, must be called by the handler method */
+    static void setTimeout(final Duration timeout) {
+        RequestContextHolder.currentRequestAttributes()
+                .setAttribute(TIMEOUT_ATTRIBUTE, timeout, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(
+            final NativeWebRequest request, final Callable<T> task) {
+        final Object timeout =
+                request.getAttribute(TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (timeout instanceof Duration && request instanceof AsyncWebRequest) {
+            ((AsyncWebRequest) request).setTimeout(((Duration) timeout).toMillis());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package uk.co.aaronvaz.carsapi;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/** Outcome of adding one car of a bulk request */
+final class BulkAddResult {
+
+    enum Status {
+        /** The car was stored */
+        CREATED,
+        /** The request failed validation, nothing was stored */
+        INVALID,
+        /** The chunk the car was in couldn't be stored */
+        FAILED
+    }
+
+    private final Status status;
+
+    private final UUID id;
+
+    private final List<String> errors;
+
+    private BulkAddResult(final Status status, final UUID id, final List<String> errors) {
+        this.status = status;
+        this.id = id;
+        this.errors = errors;
+    }
+
+    static BulkAddResult created(final UUID id) {
+        return new BulkAddResult(Status.CREATED, id, List.of());
+    }
+
+    static BulkAddResult invalid(final List<String> errors) {
+        return new BulkAddResult(Status.INVALID, null, errors);
+    }
+
+    static BulkAddResult failed() {
+        return new BulkAddResult(Status.FAILED, null, List.of());
+    }
+
+    Status getStatus() {
+        return status;
+    }
+
+    /** The id of the stored car, only present if it was {@link Status#CREATED} */
+    Optional<UUID> getId() {
+        return Optional.ofNullable(id);
+    }
+
+    /** Why the request was {@link Status#INVALID} */
+    List<String> getErrors() {
+        return errors;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final BulkAddResult that = (BulkAddResult) o;
+        return status == that.status
+                && Objects.equals(id, that.id)
+                && Objects.equals(errors, that.errors);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(status, id, errors);
+    }
+}
@@ -0,0 +1,17 @@
+package uk.co.aaronvaz.carsapi;
+
+import java.util.Collection;
+import org.springframework.transaction.annotation.Transactional;
+import uk.co.aaronvaz.carsapi.model.db.Car;
+
+/** Batch writes of {@link Car} entities, implemented by {@link CarBatchRepositoryImpl} */
+interface CarBatchRepository {
+
+    /**
+     * Insert new {@link Car} entities in one transaction, sent to the DB as a single JDBC batch
+     *
+     * @param cars the cars to insert, their ids mustn't be stored yet
+     */
+    @Transactional
+    void insertAll(Collection<Car> cars);
+}
@@ -0,0 +1,25 @@
+package uk.co.aaronvaz.carsapi;
+
+import java.util.Collection;
+import javax.persistence.EntityManager;
+import org.hibernate.Session;
+import uk.co.aaronvaz.carsapi.model.db.Car;
+
+class CarBatchRepositoryImpl implements CarBatchRepository {
+
+    private final EntityManager entityManager;
+
+    CarBatchRepositoryImpl(final EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // persist rather than save, save merges a car with an assigned id which selects it first. The
+    // batch size only applies to this transaction's session
+    @Override
+    public void insertAll(final Collection<Car> cars) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(cars.size());
+        cars.forEach(entityManager::persist);
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,89 @@
+package uk.co.aaronvaz.carsapi;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+import uk.co.aaronvaz.carsapi.model.db.Car;
+
+/**
+ * Position of the last car on a page of make or make & model results, the next page starts after
+ * it. Cars are ordered by normalized model then id, which is the order of the make & model index,
+ * so the next page is an index seek rather than an OFFSET over every earlier row
+ *
+ * <p>Sent to clients as an opaque url safe string, see {@link #toString()} & {@link
+ * #valueOf(String)}
+ */
+final class CarCursor {
+    private static final char SEPARATOR = ':';
+
+    private final String normalizedModel;
+
+    private final UUID id;
+
+    CarCursor(final String normalizedModel, final UUID id) {
+        this.normalizedModel = normalizedModel;
+        this.id = id;
+    }
+
+    /**
+     * The cursor pointing at a car, the next page starts with the car that follows it
+     *
+     * @param car the last car on the page
+     * @return cursor after the car
+     */
+    static CarCursor after(final Car car) {
+        return new CarCursor(Car.normalize(car.getModel()), car.getId());
+    }
+
+    /**
+     * Parse a cursor sent by a client. Public so that Spring's conversion service picks it up to
+     * bind the {@code after} request param
+     *
+     * @param value the string returned by {@link #toString()}
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the value isn't a cursor
+     */
+    public static CarCursor valueOf(final String value) {
+        final String decoded =
+                new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+        final int separator = decoded.indexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+
+        return new CarCursor(
+                decoded.substring(separator + 1),
+                UUID.fromString(decoded.substring(0, separator)));
+    }
+
+    String getNormalizedModel() {
+        return normalizedModel;
+    }
+
+    UUID getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        final String value = id.toString() + SEPARATOR + normalizedModel;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final CarCursor that = (CarCursor) o;
+        return Objects.equals(normalizedModel, that.normalizedModel)
+                && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(normalizedModel, id);
+    }
+}
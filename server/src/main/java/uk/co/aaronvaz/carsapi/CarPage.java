@@ -0,0 +1,39 @@
+package uk.co.aaronvaz.carsapi;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import uk.co.aaronvaz.carsapi.model.api.CarDto;
+
+/** One page of cars and the cursor the next page starts after, if there is one */
+final class CarPage {
+    private final Collection<CarDto> cars;
+
+    private final CarCursor next;
+
+    CarPage(final Collection<CarDto> cars, final CarCursor next) {
+        this.cars = cars;
+        this.next = next;
+    }
+
+    Collection<CarDto> getCars() {
+        return cars;
+    }
+
+    Optional<CarCursor> getNext() {
+        return Optional.ofNullable(next);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final CarPage carPage = (CarPage) o;
+        return Objects.equals(cars, carPage.cars) && Objects.equals(next, carPage.next);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cars, next);
+    }
+}
@@ -0,0 +1,30 @@
+package uk.co.aaronvaz.carsapi;
+
+import java.util.UUID;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.annotation.Transactional;
+import uk.co.aaronvaz.carsapi.model.db.Car;
+
+/** Partial updates of {@link Car} entities, see {@link CarPartialUpdateRepositoryImpl} */
+interface CarPartialUpdateRepository {
+
+    /**
+     * Update the supplied columns of a stored {@link Car} entity with a single UPDATE, without
+     * reading it first. Columns whose value is null are left as they are, if every supplied
+     * column already holds its value nothing is written
+     *
+     * @param id the id of the car to update
+     * @param make the new make or null to keep the stored one
+     * @param model the new model or null to keep the stored one
+     * @param colour the new colour or null to keep the stored one
+     * @param year the new year or null to keep the stored one
+     * @return the number of cars matched, 0 if no car is stored with the id
+     */
+    @Transactional
+    int updateNonNull(
+            UUID id,
+            @Nullable String make,
+            @Nullable String model,
+            @Nullable String colour,
+            @Nullable Integer year);
+}
@@ -0,0 +1,85 @@
+package uk.co.aaronvaz.carsapi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import uk.co.aaronvaz.carsapi.model.db.Car;
+
+class CarPartialUpdateRepositoryImpl implements CarPartialUpdateRepository {
+
+    private final EntityManager entityManager;
+
+    CarPartialUpdateRepositoryImpl(final EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // the SET clause only has the supplied columns, binding a null to keep a column would leave
+    // the DB to guess the type of the null. The WHERE clause skips the write if none of them
+    // differ from what is stored, the count then tells whether the car exists at all. That is a
+    // second round trip, paid only by a PATCH that changes nothing or names a missing car. It is
+    // a primary key read, which is cheaper than rewriting & locking the row with the values it
+    // already holds, and an UPDATE can't both skip the write and report the car as found
+    @Override
+    public int updateNonNull(
+            final UUID id,
+            final String make,
+            final String model,
+            final String colour,
+            final Integer year) {
+        if (make == null && model == null && colour == null && year == null) {
+            return countById(id);
+        }
+
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        final CriteriaUpdate<Car> update = builder.createCriteriaUpdate(Car.class);
+        final Root<Car> car = update.from(Car.class);
+        final List<Predicate> changes = new ArrayList<>();
+
+        if (make != null) {
+            set(builder, update, car.get("make"), make, changes);
+            update.set(car.get("normalizedMake"), Car.normalize(make));
+        }
+        if (model != null) {
+            set(builder, update, car.get("model"), model, changes);
+            update.set(car.get("normalizedModel"), Car.normalize(model));
+        }
+        if (colour != null) {
+            set(builder, update, car.get("colour"), colour, changes);
+        }
+        if (year != null) {
+            set(builder, update, car.get("year"), year, changes);
+        }
+
+        update.where(
+                builder.equal(car.get("id"), id),
+                builder.or(changes.toArray(new Predicate[0])));
+        final int updated = entityManager.createQuery(update).executeUpdate();
+        return updated > 0 ? updated : countById(id);
+    }
+
+    /** Set a column & record the predicate that its stored value differs from the new one */
+    private static void set(
+            final CriteriaBuilder builder,
+            final CriteriaUpdate<Car> update,
+            final Path<Object> column,
+            final Object value,
+            final List<Predicate> changes) {
+        update.set(column, value);
+        changes.add(builder.or(builder.isNull(column), builder.notEqual(column, value)));
+    }
+
+    /** Nothing to write, so the only question left is whether the car exists */
+    private int countById(final UUID id) {
+        return entityManager
+                .createQuery("select count(c) from Car c where c.id = :id", Long.class)
+                .setParameter("id", id)
+                .getSingleResult()
+                .intValue();
+    }
+}
@@ -1,15 +1,38 @@
 package uk.co.aaronvaz.carsapi;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import uk.co.aaronvaz.carsapi.model.db.Car;
 
 @Repository
-interface CarRepository extends org.springframework.data.repository.Repository<Car, UUID> {
+interface CarRepository
+        extends org.springframework.data.repository.Repository<Car, UUID>,
+                CarBatchRepository,
+                CarPartialUpdateRepository {
+
+    /** Rows fetched from the DB per round trip by the stream queries */
+    String STREAM_FETCH_SIZE = "100";
+
+    /** The id & model of a car, all that {@link SoundsLikeIndex} needs */
+    interface IdAndModel {
+        UUID getId();
+
+        String getModel();
+    }
 
     /**
      * Save the {@link Car} entity to the database
@@ -19,6 +42,23 @@ interface CarRepository extends org.springframework.data.repository.Repository<C
      */
     Car save(Car car);
 
+    /**
+     * Overwrite a stored {@link Car} entity with a single UPDATE, without reading it first
+     *
+     * @param car the new values of the car, matched to the stored one by id
+     * @return the number of cars updated, 0 if no car is stored with the id
+     */
+    default int update(final Car car) {
+        return updateById(
+                car.getId(),
+                car.getMake(),
+                car.getModel(),
+                Car.normalize(car.getMake()),
+                Car.normalize(car.getModel()),
+                car.getColour(),
+                car.getYear());
+    }
+
     /**
      * Return a {@link Car} entity that matches the given id from the database
      *
@@ -29,28 +69,195 @@ interface CarRepository extends org.springframework.data.repository.Repository<C
     Optional<Car> findById(UUID id);
 
     /**
-     * Delete a {@link Car} entity from the database matching the given id
+     * Return the {@link Car} entities that match the given ids from the database
+     *
+     * @param ids the ids to look up the entities by
+     * @return the matched entities, ids that don't match anything are skipped
+     */
+    Collection<Car> findAllById(Iterable<UUID> ids);
+
+    /**
+     * Stream the id & model of every {@link Car} in the database, without loading the entities.
+     * Must be consumed & closed within a transaction
+     *
+     * @return the id & model of every stored car, read {@value #STREAM_FETCH_SIZE} rows at a time
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("select c.id as id, c.model as model from Car c")
+    Stream<IdAndModel> streamIdsAndModels();
+
+    /**
+     * Delete a {@link Car} entity from the database matching the given id, with a single DELETE
+     * rather than reading the entity first
      *
      * @param id the id to delete the entity by
+     * @return the number of cars deleted, 0 if no car is stored with the id
      */
-    void deleteById(UUID id);
+    @Modifying
+    @Transactional
+    @Query("delete from Car c where c.id = :id")
+    int deleteById(@Param("id") UUID id);
 
     /**
-     * Find all {@link Car} entities in the database that have the provided make
+     * Find the first page of {@link Car} entities in the database that have the provided make,
+     * ignoring case. Cars are ordered by model then id
      *
      * @param make the make of the car to search for
+     * @param limit the max number of cars to return
      * @return {@link Car} entities that contain the supplied make
      */
-    @Query("select c from Car c where c.make = :make")
-    Collection<Car> findByMake(@Param("make") String make);
+    default List<Car> findByMake(final String make, final int limit) {
+        return findByNormalizedMake(Car.normalize(make), PageRequest.of(0, limit));
+    }
 
     /**
-     * Find all {@link Car} entities in the database that have the provided make & model
+     * Find the page of {@link Car} entities in the database that have the provided make, ignoring
+     * case, that follows the car with the supplied normalized model & id
+     *
+     * @param make the make of the car to search for
+     * @param afterModel the normalized model of the last car on the previous page
+     * @param afterId the id of the last car on the previous page
+     * @param limit the max number of cars to return
+     * @return {@link Car} entities that contain the supplied make
+     */
+    default List<Car> findByMakeAfter(
+            final String make, final String afterModel, final UUID afterId, final int limit) {
+        return findByNormalizedMakeAfter(
+                Car.normalize(make), afterModel, afterId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Find the first page of {@link Car} entities in the database that have the provided make &
+     * model, ignoring case. Cars are ordered by id
      *
      * @param make the make of the car to search for
      * @param model the model to search for
+     * @param limit the max number of cars to return
      * @return {@link Car} entities that contain the supplied make & model
      */
-    @Query("select c from Car c where c.make = :make and c.model = :model")
-    Collection<Car> findByMakeAAndModel(@Param("make") String make, @Param("model") String model);
+    default List<Car> findByMakeAAndModel(final String make, final String model, final int limit) {
+        return findByNormalizedMakeAndModel(
+                Car.normalize(make), Car.normalize(model), PageRequest.of(0, limit));
+    }
+
+    /**
+     * Find the page of {@link Car} entities in the database that have the provided make & model,
+     * ignoring case, that follows the car with the supplied id
+     *
+     * @param make the make of the car to search for
+     * @param model the model to search for
+     * @param afterId the id of the last car on the previous page
+     * @param limit the max number of cars to return
+     * @return {@link Car} entities that contain the supplied make & model
+     */
+    default List<Car> findByMakeAAndModelAfter(
+            final String make, final String model, final UUID afterId, final int limit) {
+        return findByNormalizedMakeAndModelAfter(
+                Car.normalize(make), Car.normalize(model), afterId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Stream every {@link Car} entity in the database that has the provided make, ignoring case.
+     * Cars are ordered by model then id. Must be consumed & closed within a transaction
+     *
+     * @param make the make of the car to search for
+     * @return {@link Car} entities that contain the supplied make, read {@value
+     *     #STREAM_FETCH_SIZE} rows at a time
+     */
+    default Stream<Car> streamByMake(final String make) {
+        return streamByNormalizedMake(Car.normalize(make));
+    }
+
+    /**
+     * Stream every {@link Car} entity in the database that has the provided make & model, ignoring
+     * case. Cars are ordered by id. Must be consumed & closed within a transaction
+     *
+     * @param make the make of the car to search for
+     * @param model the model to search for
+     * @return {@link Car} entities that contain the supplied make & model, read {@value
+     *     #STREAM_FETCH_SIZE} rows at a time
+     */
+    default Stream<Car> streamByMakeAndModel(final String make, final String model) {
+        return streamByNormalizedMakeAndModel(Car.normalize(make), Car.normalize(model));
+    }
+
+    @Query(
+            "select c from Car c where c.normalizedMake = :make"
+                    + " order by c.normalizedModel, c.id")
+    List<Car> findByNormalizedMake(@Param("make") String make, Pageable page);
+
+    // the redundant normalizedModel >= :model lets the index seek straight to the previous page's
+    // model, the or alone would be a filter on every car of the make
+    @Query(
+            "select c from Car c where c.normalizedMake = :make"
+                    + " and c.normalizedModel >= :model"
+                    + " and (c.normalizedModel > :model or c.id > :id)"
+                    + " order by c.normalizedModel, c.id")
+    List<Car> findByNormalizedMakeAfter(
+            @Param("make") String make,
+            @Param("model") String afterModel,
+            @Param("id") UUID afterId,
+            Pageable page);
+
+    @Query(
+            "select c from Car c where c.normalizedMake = :make and c.normalizedModel = :model"
+                    + " order by c.id")
+    List<Car> findByNormalizedMakeAndModel(
+            @Param("make") String make, @Param("model") String model, Pageable page);
+
+    @Query(
+            "select c from Car c where c.normalizedMake = :make and c.normalizedModel = :model"
+                    + " and c.id > :id order by c.id")
+    List<Car> findByNormalizedMakeAndModelAfter(
+            @Param("make") String make,
+            @Param("model") String model,
+            @Param("id") UUID afterId,
+            Pageable page);
+
+    // the stream queries build detached cars, so the persistence context doesn't hold on to every
+    // car that has already been written to the response
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(
+            "select new uk.co.aaronvaz.carsapi.model.db.Car("
+                    + "c.id, c.make, c.model, c.colour, c.year)"
+                    + " from Car c where c.normalizedMake = :make"
+                    + " order by c.normalizedModel, c.id")
+    Stream<Car> streamByNormalizedMake(@Param("make") String make);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(
+            "select new uk.co.aaronvaz.carsapi.model.db.Car("
+                    + "c.id, c.make, c.model, c.colour, c.year)"
+                    + " from Car c where c.normalizedMake = :make and c.normalizedModel = :model"
+                    + " order by c.id")
+    Stream<Car> streamByNormalizedMakeAndModel(
+            @Param("make") String make, @Param("model") String model);
+
+    @Modifying
+    @Transactional
+    @Query(
+            "update Car c set c.make = :make, c.model = :model,"
+                    + " c.normalizedMake = :normalizedMake, c.normalizedModel = :normalizedModel,"
+                    + " c.colour = :colour, c.year = :year"
+                    + " where c.id = :id")
+    int updateById(
+            @Param("id") UUID id,
+            @Param("make") String make,
+            @Param("model") String model,
+            @Param("normalizedMake") String normalizedMake,
+            @Param("normalizedModel") String normalizedModel,
+            @Param("colour") String colour,
+            @Param("year") int year);
+
+    /**
+     * Fill in the normalized make & model of cars stored before those columns existed
+     *
+     * @return the number of cars updated
+     */
+    @Modifying
+    @Transactional
+    @Query(
+            "update Car c set c.normalizedMake = lower(c.make), c.normalizedModel = lower(c.model)"
+                    + " where c.normalizedMake is null or c.normalizedModel is null")
+    int normalizeLegacyCars();
 }
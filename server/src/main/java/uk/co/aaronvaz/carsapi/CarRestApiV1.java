@@ -1,11 +1,35 @@
 package uk.co.aaronvaz.carsapi;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import javax.validation.ConstraintViolationException;
 import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import org.hibernate.validator.constraints.time.DurationMin;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -19,11 +43,15 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import uk.co.aaronvaz.carsapi.model.api.BulkCreateItemDto;
 import uk.co.aaronvaz.carsapi.model.api.CarDto;
 import uk.co.aaronvaz.carsapi.model.api.CreateOrUpdateCarRequestV1;
 import uk.co.aaronvaz.carsapi.model.api.PartialUpdateCarRequestV1;
@@ -35,10 +63,21 @@ class CarRestApiV1 {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CarRestApiV1.class);
 
+    static final String REQUEST_TIMEOUT_HEADER = "X-Request-Timeout";
+
     private final CarService service;
 
-    CarRestApiV1(final CarService service) {
+    private final Properties properties;
+
+    private final ObjectMapper objectMapper;
+
+    CarRestApiV1(
+            final CarService service,
+            final Properties properties,
+            final ObjectMapper objectMapper) {
         this.service = service;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -70,12 +109,81 @@ class CarRestApiV1 {
      */
     @PostMapping(value = "", consumes = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<?> add(@Valid @RequestBody final CreateOrUpdateCarRequestV1 request) {
-        final CarDto carDto = service.addCar(request);
-        final URI carLocation = retrieveCarUri(carDto.getId());
+        final UUID id = service.addCar(request);
+        final URI carLocation = retrieveCarUri(id);
 
         return ResponseEntity.created(carLocation).build();
     }
 
+    /**
+     * Add many Cars in one request, as a json array or as newline delimited json. The body is read
+     * & stored {@code cars.api.bulk-chunk-size} cars at a time and the outcome of each chunk is
+     * streamed back before the next is read, so neither the request nor the response is held in
+     * memory. Each car is read & validated on its own, a car with a field of the wrong type is
+     * rejected like a car that fails validation. A body that stops being valid json ends with the
+     * car that couldn't be read
+     *
+     * <p>Request:
+     *
+     * <pre>
+     *     POST /api/v1/cars/_bulk
+     *     Content-Type: application/x-ndjson
+     *
+     *     {"make":"Ford","model":"Focus","colour":"Blue","year":2010}
+     *     {"make":"Ford","model":"","colour":"Red","year":2008}
+     * </pre>
+     *
+     * <p>Response:
+     *
+     * <pre>
+     *     HTTP 200 OK
+     *     Content-Type: application/json
+     *
+     *     [
+     *      {
+     *          "status": 201,
+     *          "id": "8a5fea9c-43ff-44d3-a334-e1eca5f209fb",
+     *          "location": "http://localhost:8080/api/v1/cars/8a5fea9c-43ff-44d3-a334-e1eca5f209fb"
+     *      },
+     *      {
+     *          "status": 400,
+     *          "errors": ["model must not be blank"]
+     *      }
+     *     ]
+     * </pre>
+     *
+     * @param body the request body
+     * @return 200 with the outcome of each car in request order, 400 if the body doesn't start
+     *     with valid json
+     */
+    @PostMapping(
+            value = "/_bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<StreamingResponseBody> addAll(final InputStream body) throws IOException {
+        // reads both content types, a root json array is unwrapped into its elements. Only the
+        // first token is read here, so a body that isn't json at all is rejected up front
+        final MappingIterator<CreateOrUpdateCarRequestV1> values =
+                objectMapper.readerFor(CreateOrUpdateCarRequestV1.class).readValues(body);
+
+        return streamResponse(
+                MediaType.APPLICATION_JSON,
+                items -> {
+                    try (values) {
+                        List<BulkAddResult> results = addChunk(values);
+                        while (!results.isEmpty()) {
+                            items.accept(
+                                    results.stream()
+                                            .map(this::toBulkCreateItem)
+                                            .collect(Collectors.toUnmodifiableList()));
+                            results = addChunk(values);
+                        }
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
     /**
      * Update an existing Car
      *
@@ -204,11 +312,22 @@ class CarRestApiV1 {
      * </pre>
      *
      * @param id the id of the stored car
+     * @param homophones whether to include the homophones of the car's model
+     * @param timeout time budget for the request, homophones not found within it are marked as
+     *     partial
+     * @param timeoutHeader same as {@code timeout}, used when the param isn't set
      * @return 200 with the Car properties in json or 404 if car doesn't exist
      */
     @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    ResponseEntity<CarDto> retrieve(@PathVariable final UUID id) {
-        return ResponseEntity.of(service.retrieveCar(id));
+    ResponseEntity<CarDto> retrieve(
+            @PathVariable final UUID id,
+            @RequestParam(defaultValue = "true") final boolean homophones,
+            @RequestParam(required = false) @DurationMin(millis = 1) final Duration timeout,
+            @RequestHeader(name = REQUEST_TIMEOUT_HEADER, required = false)
+                    @DurationMin(millis = 1)
+                    final Duration timeoutHeader) {
+        return ResponseEntity.of(
+                service.retrieveCar(id, homophones, deadline(timeout, timeoutHeader)));
     }
 
     /**
@@ -278,11 +397,108 @@ class CarRestApiV1 {
      * </pre>
      *
      * @param make the make of the Car to search for
-     * @return 200 and json array with cars or 200 with empty json array
+     * @param limit max number of cars in the response, {@code cars.api.default-page-limit} if not
+     *     set and capped at {@code cars.api.max-page-limit}
+     * @param after cursor from the {@code next} link of the previous page
+     * @param homophones whether to include the homophones of the cars' models
+     * @param timeout time budget for the request, homophones not found within it are marked as
+     *     partial
+     * @param timeoutHeader same as {@code timeout}, used when the param isn't set
+     * @return 200 and json array with cars or 200 with empty json array, with a {@code next} link
+     *     header if there are more cars
      */
     @GetMapping(value = "/make/{make}", produces = MediaType.APPLICATION_JSON_VALUE)
-    ResponseEntity<Collection<CarDto>> retrieveByMake(@PathVariable final String make) {
-        return ResponseEntity.ok(service.findCarsByMake(make));
+    ResponseEntity<Collection<CarDto>> retrieveByMake(
+            @PathVariable final String make,
+            @RequestParam(required = false) @Positive final Integer limit,
+            @RequestParam(required = false) final CarCursor after,
+            @RequestParam(defaultValue = "true") final boolean homophones,
+            @RequestParam(required = false) @DurationMin(millis = 1) final Duration timeout,
+            @RequestHeader(name = REQUEST_TIMEOUT_HEADER, required = false)
+                    @DurationMin(millis = 1)
+                    final Duration timeoutHeader) {
+        final int pageLimit = pageLimit(limit);
+        return pageResponse(
+                service.findCarsByMake(
+                        make, pageLimit, after, homophones, deadline(timeout, timeoutHeader)),
+                pageLimit);
+    }
+
+    /**
+     * Stream every Car of a make as newline delimited json, one car per line. Cars are written as
+     * they are read from the DB, so the response isn't paged
+     *
+     * <p>Request:
+     *
+     * <pre>
+     *     GET /api/v1/cars/make/Ford
+     *     Accept: application/x-ndjson
+     * </pre>
+     *
+     * <p>Response:
+     *
+     * <pre>
+     *     HTTP 200 OK
+     *     Content-Type: application/x-ndjson
+     *
+     *     {"make":"Ford","model":{"name":"Focus","homophones":"focus"},"colour":"Blue","year":2010}
+     *     {"make":"Ford","model":{"name":"Ka","homophones":"ka, car"},"colour":"Red","year":2008}
+     * </pre>
+     *
+     * @param make the make of the Car to search for
+     * @param homophones whether to include the homophones of the cars' models
+     * @param timeout time budget for each batch of cars, homophones not found within it are marked
+     *     as partial
+     * @param timeoutHeader same as {@code timeout}, used when the param isn't set
+     * @return 200 and a car per line or 200 with an empty body
+     */
+    @GetMapping(value = "/make/{make}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> streamByMake(
+            @PathVariable final String make,
+            @RequestParam(defaultValue = "true") final boolean homophones,
+            @RequestParam(required = false) @DurationMin(millis = 1) final Duration timeout,
+            @RequestHeader(name = REQUEST_TIMEOUT_HEADER, required = false)
+                    @DurationMin(millis = 1)
+                    final Duration timeoutHeader) {
+        final Duration budget = budget(timeout, timeoutHeader);
+        return streamCars(
+                MediaType.APPLICATION_NDJSON,
+                cars -> service.streamCarsByMake(make, homophones, budget, cars));
+    }
+
+    /**
+     * Same as {@link #streamByMake(String, boolean, Duration, Duration)}, but the cars are streamed
+     * as a json array for clients that can't read newline delimited json
+     *
+     * <p>Request:
+     *
+     * <pre>
+     *     GET /api/v1/cars/make/Ford?stream=true
+     *     Accept: application/json
+     * </pre>
+     *
+     * @param make the make of the Car to search for
+     * @param homophones whether to include the homophones of the cars' models
+     * @param timeout time budget for each batch of cars, homophones not found within it are marked
+     *     as partial
+     * @param timeoutHeader same as {@code timeout}, used when the param isn't set
+     * @return 200 and json array with every car or 200 with empty json array
+     */
+    @GetMapping(
+            value = "/make/{make}",
+            params = "stream=true",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<StreamingResponseBody> streamArrayByMake(
+            @PathVariable final String make,
+            @RequestParam(defaultValue = "true") final boolean homophones,
+            @RequestParam(required = false) @DurationMin(millis = 1) final Duration timeout,
+            @RequestHeader(name = REQUEST_TIMEOUT_HEADER, required = false)
+                    @DurationMin(millis = 1)
+                    final Duration timeoutHeader) {
+        final Duration budget = budget(timeout, timeoutHeader);
+        return streamCars(
+                MediaType.APPLICATION_JSON,
+                cars -> service.streamCarsByMake(make, homophones, budget, cars));
     }
 
     /**
@@ -325,12 +541,352 @@ class CarRestApiV1 {
      *
      * @param make the make of the Car to search for
      * @param model the model of the car to search for
-     * @return 200 and json array with cars or 200 with empty json array
+     * @param limit max number of cars in the response, {@code cars.api.default-page-limit} if not
+     *     set and capped at {@code cars.api.max-page-limit}
+     * @param after cursor from the {@code next} link of the previous page
+     * @param homophones whether to include the homophones of the model
+     * @param timeout time budget for the request, homophones not found within it are marked as
+     *     partial
+     * @param timeoutHeader same as {@code timeout}, used when the param isn't set
+     * @return 200 and json array with cars or 200 with empty json array, with a {@code next} link
+     *     header if there are more cars
      */
     @GetMapping(value = "/make/{make}/model/{model}", produces = MediaType.APPLICATION_JSON_VALUE)
     ResponseEntity<Collection<CarDto>> retrieveByMakeAndModel(
-            @PathVariable final String make, @PathVariable final String model) {
-        return ResponseEntity.ok(service.findCarsByMakeAndModel(make, model));
+            @PathVariable final String make,
+            @PathVariable final String model,
+            @RequestParam(required = false) @Positive final Integer limit,
+            @RequestParam(required = false) final CarCursor after,
+            @RequestParam(defaultValue = "true") final boolean homophones,
+            @RequestParam(required = false) @DurationMin(millis = 1) final Duration timeout,
+            @RequestHeader(name = REQUEST_TIMEOUT_HEADER, required = false)
+                    @DurationMin(millis = 1)
+                    final Duration timeoutHeader) {
+        final int pageLimit = pageLimit(limit);
+        return pageResponse(
+                service.findCarsByMakeAndModel(
+                        make,
+                        model,
+                        pageLimit,
+                        after,
+                        homophones,
+                        deadline(timeout, timeoutHeader)),
+                pageLimit);
+    }
+
+    /**
+     * Stream every Car of a make & model as newline delimited json, one car per line. Cars are
+     * written as they are read from the DB, so the response isn't paged
+     *
+     * <p>Request:
+     *
+     * <pre>
+     *     GET /api/v1/cars/make/Ford/model/Focus
+     *     Accept: application/x-ndjson
+     * </pre>
+     *
+     * <p>Response:
+     *
+     * <pre>
+     *     HTTP 200 OK
+     *     Content-Type: application/x-ndjson
+     *
+     *     {"make":"Ford","model":{"name":"Focus","homophones":"focus"},"colour":"Blue","year":2010}
+     *     {"make":"Ford","model":{"name":"Focus","homophones":"focus"},"colour":"Red","year":2012}
+     * </pre>
+     *
+     * @param make the make of the Car to search for
+     * @param model the model of the car to search for
+     * @param homophones whether to include the homophones of the model
+     * @param timeout time budget for the homophones, if not found within it they are marked as
+     *     partial
+     * @param timeoutHeader same as {@code timeout}, used when the param isn't set
+     * @return 200 and a car per line or 200 with an empty body
+     */
+    @GetMapping(
+            value = "/make/{make}/model/{model}",
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> streamByMakeAndModel(
+            @PathVariable final String make,
+            @PathVariable final String model,
+            @RequestParam(defaultValue = "true") final boolean homophones,
+            @RequestParam(required = false) @DurationMin(millis = 1) final Duration timeout,
+            @RequestHeader(name = REQUEST_TIMEOUT_HEADER, required = false)
+                    @DurationMin(millis = 1)
+                    final Duration timeoutHeader) {
+        final Duration budget = budget(timeout, timeoutHeader);
+        return streamCars(
+                MediaType.APPLICATION_NDJSON,
+                cars -> service.streamCarsByMakeAndModel(make, model, homophones, budget, cars));
+    }
+
+    /**
+     * Same as {@link #streamByMakeAndModel(String, String, boolean, Duration, Duration)}, but the
+     * cars are streamed as a json array for clients that can't read newline delimited json
+     *
+     * <p>Request:
+     *
+     * <pre>
+     *     GET /api/v1/cars/make/Ford/model/Focus?stream=true
+     *     Accept: application/json
+     * </pre>
+     *
+     * @param make the make of the Car to search for
+     * @param model the model of the car to search for
+     * @param homophones whether to include the homophones of the model
+     * @param timeout time budget for the homophones, if not found within it they are marked as
+     *     partial
+     * @param timeoutHeader same as {@code timeout}, used when the param isn't set
+     * @return 200 and json array with every car or 200 with empty json array
+     */
+    @GetMapping(
+            value = "/make/{make}/model/{model}",
+            params = "stream=true",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<StreamingResponseBody> streamArrayByMakeAndModel(
+            @PathVariable final String make,
+            @PathVariable final String model,
+            @RequestParam(defaultValue = "true") final boolean homophones,
+            @RequestParam(required = false) @DurationMin(millis = 1) final Duration timeout,
+            @RequestHeader(name = REQUEST_TIMEOUT_HEADER, required = false)
+                    @DurationMin(millis = 1)
+                    final Duration timeoutHeader) {
+        final Duration budget = budget(timeout, timeoutHeader);
+        return streamCars(
+                MediaType.APPLICATION_JSON,
+                cars -> service.streamCarsByMakeAndModel(make, model, homophones, budget, cars));
+    }
+
+    /**
+     * Retrieve the Cars whose model sounds like a word, e.g. a misspelled model
+     *
+     * <p>Request:
+     *
+     * <pre>
+     *     GET /api/v1/cars/sounds-like/fokus
+     *     Accept: application/json
+     * </pre>
+     *
+     * <p>Response if successful:
+     *
+     * <pre>
+     *     HTTP 200 OK
+     *     Content-Type: application/json
+     *
+     *     [
+     *      {
+     *          "make": "Ford",
+     *          "model": {
+     *              "name": "Focus",
+     *              "homophones": "focus, fokus, phocus, ficus, focas"
+     *          },
+     *          "colour": "Blue",
+     *          "year": 2010
+     *      }
+     *     ]
+     * </pre>
+     *
+     * <p>Response if no matches were not found:
+     *
+     * <pre>
+     *     HTTP 200 OK
+     *     Content-type: application/json
+     *
+     *     []
+     * </pre>
+     *
+     * @param word the word the model of the car has to sound like
+     * @param limit max number of cars in the response, {@code cars.api.default-page-limit} if not
+     *     set and capped at {@code cars.api.max-page-limit}
+     * @param homophones whether to include the homophones of the cars' models
+     * @param timeout time budget for the request, homophones not found within it are marked as
+     *     partial
+     * @param timeoutHeader same as {@code timeout}, used when the param isn't set
+     * @return 200 and json array with cars or 200 with empty json array
+     */
+    @GetMapping(value = "/sounds-like/{word}", produces = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<Collection<CarDto>> retrieveBySoundsLike(
+            @PathVariable final String word,
+            @RequestParam(required = false) @Positive final Integer limit,
+            @RequestParam(defaultValue = "true") final boolean homophones,
+            @RequestParam(required = false) @DurationMin(millis = 1) final Duration timeout,
+            @RequestHeader(name = REQUEST_TIMEOUT_HEADER, required = false)
+                    @DurationMin(millis = 1)
+                    final Duration timeoutHeader) {
+        return ResponseEntity.ok(
+                service.findCarsSoundingLike(
+                        word, pageLimit(limit), homophones, deadline(timeout, timeoutHeader)));
+    }
+
+    /** The instant the request has to answer by, see {@link #budget(Duration, Duration)} */
+    private Instant deadline(final Duration timeout, final Duration timeoutHeader) {
+        return Instant.now().plus(budget(timeout, timeoutHeader));
+    }
+
+    /**
+     * The time budget of the request, from the {@code timeout} param, the {@value
+     * REQUEST_TIMEOUT_HEADER} header or {@code cars.api.request-timeout} in that order, capped at
+     * {@code cars.api.max-request-timeout}
+     */
+    private Duration budget(final Duration timeout, final Duration timeoutHeader) {
+        final Duration budget =
+                Objects.requireNonNullElse(
+                        timeout,
+                        Objects.requireNonNullElse(timeoutHeader, properties.getRequestTimeout()));
+        return budget.compareTo(properties.getMaxRequestTimeout()) > 0
+                ? properties.getMaxRequestTimeout()
+                : budget;
+    }
+
+    private int pageLimit(final Integer limit) {
+        return Math.min(
+                Objects.requireNonNullElse(limit, properties.getDefaultPageLimit()),
+                properties.getMaxPageLimit());
+    }
+
+    /** The page's cars, with a link to the next page that keeps every other request param */
+    private static ResponseEntity<Collection<CarDto>> pageResponse(
+            final CarPage page, final int limit) {
+        final ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        page.getNext()
+                .ifPresent(
+                        next ->
+                                response.header(
+                                        HttpHeaders.LINK,
+                                        "<" + nextPageUri(next, limit) + ">; rel=\"next\""));
+
+        return response.body(page.getCars());
+    }
+
+    private static String nextPageUri(final CarCursor next, final int limit) {
+        // the current request is already encoded & the cursor is url safe, so nothing is encoded
+        return ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("limit", limit)
+                .replaceQueryParam("after", next)
+                .build(true)
+                .toUriString();
+    }
+
+    /** Write the cars to the response as the service produces them, see {@link #streamResponse} */
+    private ResponseEntity<StreamingResponseBody> streamCars(
+            final MediaType contentType, final Consumer<Consumer<Collection<CarDto>>> cars) {
+        return streamResponse(contentType, items -> cars.accept(items::accept));
+    }
+
+    /**
+     * Write items to the response as they are produced, either one per line or as a json array.
+     * Each batch is flushed so the client starts receiving items before the last is produced. The
+     * response is cut off after {@code cars.api.stream-timeout}
+     */
+    private ResponseEntity<StreamingResponseBody> streamResponse(
+            final MediaType contentType, final Consumer<Consumer<Collection<?>>> items) {
+        AsyncTimeoutInterceptor.setTimeout(properties.getStreamTimeout());
+        final boolean ndjson = MediaType.APPLICATION_NDJSON.equals(contentType);
+        final StreamingResponseBody body =
+                outputStream -> {
+                    try (final JsonGenerator generator =
+                            objectMapper.createGenerator(outputStream)) {
+                        // ndjson values end with a newline instead of being separated by a space
+                        generator.setRootValueSeparator(null);
+                        if (!ndjson) {
+                            generator.writeStartArray();
+                        }
+
+                        items.accept(batch -> writeBatch(generator, batch, ndjson));
+
+                        if (!ndjson) {
+                            generator.writeEndArray();
+                        }
+                    }
+                };
+
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
+    private static void writeBatch(
+            final JsonGenerator generator, final Collection<?> batch, final boolean ndjson) {
+        try {
+            for (final Object item : batch) {
+                generator.writeObject(item);
+                if (ndjson) {
+                    generator.writeRaw('\n');
+                }
+            }
+
+            generator.flush();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Read the next {@code cars.api.bulk-chunk-size} cars of a bulk request & add the ones that
+     * could be read, the cars that couldn't be read are rejected in their place
+     *
+     * @return the outcome of each car in the chunk in request order, empty once the body is read
+     */
+    private List<BulkAddResult> addChunk(
+            final MappingIterator<CreateOrUpdateCarRequestV1> values) throws IOException {
+        final int chunkSize = properties.getBulkChunkSize();
+        final List<CreateOrUpdateCarRequestV1> requests = new ArrayList<>(chunkSize);
+        final Map<Integer, BulkAddResult> unreadable = new HashMap<>();
+        try {
+            while (requests.size() + unreadable.size() < chunkSize && values.hasNextValue()) {
+                try {
+                    requests.add(values.nextValue());
+                } catch (final JsonMappingException e) {
+                    // the iterator skips to the next car on the following read
+                    unreadable.put(requests.size() + unreadable.size(), unreadable(e));
+                }
+            }
+        } catch (final JsonParseException e) {
+            // the rest of the body can't be split into cars, report the broken one & stop reading
+            LOGGER.debug("Bulk request body isn't valid json", e);
+            unreadable.put(
+                    requests.size() + unreadable.size(),
+                    BulkAddResult.invalid(List.of("is not valid json")));
+            values.close();
+        }
+
+        final Iterator<BulkAddResult> added =
+                requests.isEmpty()
+                        ? Collections.emptyIterator()
+                        : service.addCars(requests, chunkSize).iterator();
+        final List<BulkAddResult> results = new ArrayList<>(requests.size() + unreadable.size());
+        for (int i = 0; i < requests.size() + unreadable.size(); i++) {
+            results.add(unreadable.containsKey(i) ? unreadable.get(i) : added.next());
+        }
+
+        return results;
+    }
+
+    /** A car that is valid json but not a valid request, as {@code <field> <message>} */
+    private static BulkAddResult unreadable(final JsonMappingException e) {
+        final String field =
+                e.getPath().stream()
+                        .map(JsonMappingException.Reference::getFieldName)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.joining("."));
+        return BulkAddResult.invalid(
+                List.of(
+                        field.isEmpty()
+                                ? "must be a json object"
+                                : field + " has an invalid value"));
+    }
+
+    private BulkCreateItemDto toBulkCreateItem(final BulkAddResult result) {
+        switch (result.getStatus()) {
+            case CREATED:
+                final UUID id = result.getId().orElseThrow();
+                return new BulkCreateItemDto(
+                        HttpStatus.CREATED.value(), id, retrieveCarUri(id), List.of());
+            case INVALID:
+                return new BulkCreateItemDto(
+                        HttpStatus.BAD_REQUEST.value(), null, null, result.getErrors());
+            default:
+                return new BulkCreateItemDto(
+                        HttpStatus.INTERNAL_SERVER_ERROR.value(), null, null, List.of());
+        }
     }
 
     private URI retrieveCarUri(final UUID id) {
@@ -348,7 +904,9 @@ class CarRestApiV1 {
 
     @ExceptionHandler({
         MethodArgumentNotValidException.class,
-        MethodArgumentTypeMismatchException.class
+        MethodArgumentTypeMismatchException.class,
+        ConstraintViolationException.class,
+        JsonProcessingException.class
     })
     ResponseEntity<String> handleRequestValidationErrors(final Exception exception) {
         LOGGER.debug("Error processing Cars API request", exception);
@@ -1,16 +1,27 @@
 package uk.co.aaronvaz.carsapi;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Objects;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import uk.co.aaronvaz.carsapi.datamuse.DatamuseRestApi;
-import uk.co.aaronvaz.carsapi.datamuse.model.SoundsLikeResponseV1;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.co.aaronvaz.carsapi.homophones.HomophoneService;
 import uk.co.aaronvaz.carsapi.model.api.CarDto;
 import uk.co.aaronvaz.carsapi.model.api.CreateOrUpdateCarRequestV1;
 import uk.co.aaronvaz.carsapi.model.api.ModelDto;
@@ -21,74 +32,103 @@ import uk.co.aaronvaz.carsapi.model.db.Car;
 class CarService {
     private static final Logger LOGGER = LoggerFactory.getLogger(CarService.class);
 
+    /** Cars converted per batch when streaming, one fetch from the DB */
+    private static final int STREAM_BATCH_SIZE = Integer.parseInt(CarRepository.STREAM_FETCH_SIZE);
+
     private final CarRepository repository;
 
-    private final DatamuseRestApi datamuseRestApi;
+    private final HomophoneService homophoneService;
+
+    private final SoundsLikeIndex soundsLikeIndex;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Validator validator;
 
-    CarService(final CarRepository repository, final DatamuseRestApi datamuseRestApi) {
+    CarService(
+            final CarRepository repository,
+            final HomophoneService homophoneService,
+            final SoundsLikeIndex soundsLikeIndex,
+            final PlatformTransactionManager transactionManager,
+            final Validator validator) {
         this.repository = repository;
-        this.datamuseRestApi = datamuseRestApi;
+        this.homophoneService = homophoneService;
+        this.soundsLikeIndex = soundsLikeIndex;
+        this.validator = validator;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     /**
      * Process a {@link CreateOrUpdateCarRequestV1} request to add a new {@link Car} entity to the
      * DB
      *
+     * <p>The homophones of the car's model are enriched in the background, so the request doesn't
+     * wait on the lookup
+     *
      * @param request the request containing the data to add
-     * @return A DTO object representing the newly created {@link Car} entity
+     * @return the id of the newly created {@link Car} entity
      */
-    CarDto addCar(final CreateOrUpdateCarRequestV1 request) {
-        final Car car =
-                new Car(
-                        UUID.randomUUID(),
-                        request.getMake(),
-                        request.getModel(),
-                        request.getColour(),
-                        request.getYear());
+    UUID addCar(final CreateOrUpdateCarRequestV1 request) {
+        final Car car = toCar(UUID.randomUUID(), request);
 
         final Car storedCar = repository.save(car);
-        return convertToDto(storedCar);
+        soundsLikeIndex.put(storedCar.getId(), storedCar.getModel());
+        homophoneService.enrichAsync(storedCar.getModel());
+
+        return storedCar.getId();
+    }
+
+    /**
+     * Add a {@link Car} entity to the DB for each valid request. Requests are validated one by one
+     * & the valid ones are inserted a chunk at a time, each chunk is one transaction & one JDBC
+     * batch. A chunk that fails to insert doesn't stop the chunks after it
+     *
+     * <p>The homophones of each distinct model in a chunk are enriched in the background
+     *
+     * @param requests the cars to add
+     * @param chunkSize the max number of requests inserted together
+     * @return the outcome of each request, in the same order as the requests
+     */
+    List<BulkAddResult> addCars(
+            final List<CreateOrUpdateCarRequestV1> requests, final int chunkSize) {
+        final List<BulkAddResult> results = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += chunkSize) {
+            final int to = Math.min(from + chunkSize, requests.size());
+            results.addAll(addChunk(requests.subList(from, to)));
+        }
+
+        return results;
     }
 
     /**
      * Process a {@link CreateOrUpdateCarRequestV1} request to update an existing car in the DB. If
      * the Car doesn't exist we create a new one
      *
+     * <p>The car is updated without being read first, it's only inserted if the update finds no
+     * car. The homophones of the model are enriched in the background, which is a no-op if they
+     * are already stored
+     *
      * @param id the id of the existing car
      * @param request the request that will be used to update the car
      * @return true if the Car was created, false otherwise
      */
     boolean updateCar(final UUID id, final CreateOrUpdateCarRequestV1 request) {
-        final Optional<Car> storedCar = repository.findById(id);
-        if (storedCar.isEmpty()) {
-            final Car car =
-                    new Car(
-                            id,
-                            request.getMake(),
-                            request.getModel(),
-                            request.getColour(),
-                            request.getYear());
-            repository.save(car);
+        final Car car = toCar(id, request);
+        final boolean created = repository.update(car) == 0 && insert(car);
 
-            return true;
-        }
+        soundsLikeIndex.put(id, car.getModel());
+        homophoneService.enrichAsync(car.getModel());
 
-        final Car dbCar = storedCar.get();
-        dbCar.setMake(request.getMake());
-        dbCar.setModel(request.getModel());
-        dbCar.setColour(request.getColour());
-        dbCar.setYear(request.getYear());
-
-        repository.save(dbCar);
-
-        return false;
+        return created;
     }
 
     /**
      * Process a {@link PartialUpdateCarRequestV1} request to partially update an existing Car
      *
-     * <p>The update is only carried out if the request contains new data Otherwise, no update is
-     * performed
+     * <p>Only the fields set in the request are written, with a single UPDATE that doesn't read
+     * the car first. A request with no fields set, or whose fields all match the stored car,
+     * writes nothing
      *
      * @param id the id of the existing car
      * @param request the request that will be used to update the car
@@ -96,23 +136,42 @@ class CarService {
      */
     void partialUpdateCar(final UUID id, final PartialUpdateCarRequestV1 request)
             throws CarNotFoundException {
-        final Optional<Car> storedCar = repository.findById(id);
-        if (storedCar.isEmpty()) {
+        final int updated =
+                repository.updateNonNull(
+                        id,
+                        request.getMake(),
+                        request.getModel(),
+                        request.getColour(),
+                        request.getYear());
+        if (updated == 0) {
             throw new CarNotFoundException(id);
         }
 
-        storedCar.flatMap(car -> updateCarFromRequest(request, car)).ifPresent(repository::save);
+        if (request.getModel() != null) {
+            soundsLikeIndex.put(id, request.getModel());
+            homophoneService.enrichAsync(request.getModel());
+        }
     }
 
     /**
      * Search the DB for a {@link Car} with the supplied id
      *
      * @param id the id of the {@link Car} entity you are looking for
+     * @param includeHomophones whether to look up the homophones of the car's model
+     * @param deadline the instant after which the homophones are no longer waited for and are
+     *     marked as partial instead
      * @return Optional containing the found entity's DTO or {@link Optional#empty()} if nothing is
      *     found
      */
-    Optional<CarDto> retrieveCar(final UUID id) {
-        return repository.findById(id).map(this::convertToDto);
+    Optional<CarDto> retrieveCar(
+            final UUID id, final boolean includeHomophones, final Instant deadline) {
+        return repository
+                .findById(id)
+                .map(
+                        car ->
+                                includeHomophones
+                                        ? convertToDtoWithHomophones(car, deadline)
+                                        : convertToDto(car, null, false));
     }
 
     /**
@@ -121,59 +180,330 @@ class CarService {
      * @param id the id of the {@link Car} to delete
      */
     void deleteCar(final UUID id) throws CarNotFoundException {
-        try {
-            repository.deleteById(id);
-        } catch (final EmptyResultDataAccessException e) {
+        if (repository.deleteById(id) == 0) {
             LOGGER.debug("No car with id: {} found for delete, ignoring", id);
             throw new CarNotFoundException(id);
         }
+
+        soundsLikeIndex.remove(id);
     }
 
     /**
-     * Find {@link Car} entities in the DB who match the supplied make
+     * Find a page of {@link Car} entities in the DB who match the supplied make, ordered by model
+     * then id
      *
      * @param make the make to search for
-     * @return Collection of {@link CarDto} from matching {@link Car} entities
+     * @param limit the max number of cars on the page
+     * @param after cursor the page starts after or null for the first page
+     * @param includeHomophones whether to look up the homophones of the cars' models
+     * @param deadline the instant after which the homophones are no longer waited for and are
+     *     marked as partial instead
+     * @return page of {@link CarDto} from matching {@link Car} entities
      */
-    Collection<CarDto> findCarsByMake(final String make) {
-        return repository.findByMake(make).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toUnmodifiableList());
+    CarPage findCarsByMake(
+            final String make,
+            final int limit,
+            final CarCursor after,
+            final boolean includeHomophones,
+            final Instant deadline) {
+        final List<Car> cars = findByMake(make, limit, after);
+
+        final List<Car> page = firstCars(cars, limit);
+        final Collection<CarDto> carDtos =
+                includeHomophones
+                        ? convertToDtos(page, deadline)
+                        : convertToDtosWithoutHomophones(page);
+        return new CarPage(carDtos, nextCursor(cars, limit));
+    }
+
+    /**
+     * Find a page of {@link Car} entities in the DB who match the supplied make & model, ordered by
+     * id
+     *
+     * <p>Every matching car shares the same model, so its homophones are looked up while the cars
+     * are fetched from the DB
+     *
+     * @param make the make to search for
+     * @param model the model to search for
+     * @param limit the max number of cars on the page
+     * @param after cursor the page starts after or null for the first page
+     * @param includeHomophones whether to look up the homophones of the model
+     * @param deadline the instant after which the homophones are no longer waited for and are
+     *     marked as partial instead
+     * @return page of {@link CarDto} from matching {@link Car} entities
+     */
+    CarPage findCarsByMakeAndModel(
+            final String make,
+            final String model,
+            final int limit,
+            final CarCursor after,
+            final boolean includeHomophones,
+            final Instant deadline) {
+        if (!includeHomophones) {
+            final List<Car> cars = findByMakeAndModel(make, model, limit, after);
+            return new CarPage(
+                    convertToDtosWithoutHomophones(firstCars(cars, limit)),
+                    nextCursor(cars, limit));
+        }
+
+        final CompletableFuture<String> homophones =
+                homophoneService.homophonesAsync(model, deadline);
+        final List<Car> cars = findByMakeAndModel(make, model, limit, after);
+
+        final Collection<CarDto> carDtos =
+                firstCars(cars, limit).stream()
+                        .map(car -> convertToDto(car, homophones.join()))
+                        .collect(Collectors.toUnmodifiableList());
+        return new CarPage(carDtos, nextCursor(cars, limit));
     }
 
     /**
-     * Find {@link Car} entities in the DB who match the supplied make & model
+     * Stream every {@link Car} entity in the DB who match the supplied make, ordered by model then
+     * id. Cars are read from the DB & handed to the consumer in batches, so only one batch is held
+     * in memory however many cars match
+     *
+     * @param make the make to search for
+     * @param includeHomophones whether to look up the homophones of the cars' models
+     * @param timeout time budget of each batch, homophones not found within it are marked as
+     *     partial
+     * @param consumer called with each batch of {@link CarDto} in order
+     */
+    void streamCarsByMake(
+            final String make,
+            final boolean includeHomophones,
+            final Duration timeout,
+            final Consumer<Collection<CarDto>> consumer) {
+        final Function<List<Car>, Collection<CarDto>> converter =
+                includeHomophones
+                        ? batch -> convertToDtos(batch, Instant.now().plus(timeout))
+                        : CarService::convertToDtosWithoutHomophones;
+
+        readOnlyTransaction.executeWithoutResult(
+                status -> {
+                    try (final Stream<Car> cars = repository.streamByMake(make)) {
+                        forEachBatch(cars, converter, consumer);
+                    }
+                });
+    }
+
+    /**
+     * Stream every {@link Car} entity in the DB who match the supplied make & model, ordered by
+     * id. Same as {@link #streamCarsByMake(String, boolean, Duration, Consumer)}, except that the
+     * homophones of the model are looked up once while the query runs
      *
      * @param make the make to search for
      * @param model the model to search for
+     * @param includeHomophones whether to look up the homophones of the model
+     * @param timeout time budget for the homophones, if not found within it the cars' homophones
+     *     are marked as partial
+     * @param consumer called with each batch of {@link CarDto} in order
+     */
+    void streamCarsByMakeAndModel(
+            final String make,
+            final String model,
+            final boolean includeHomophones,
+            final Duration timeout,
+            final Consumer<Collection<CarDto>> consumer) {
+        final Function<List<Car>, Collection<CarDto>> converter;
+        if (includeHomophones) {
+            final CompletableFuture<String> homophones =
+                    homophoneService.homophonesAsync(model, Instant.now().plus(timeout));
+            converter =
+                    batch ->
+                            batch.stream()
+                                    .map(car -> convertToDto(car, homophones.join()))
+                                    .collect(Collectors.toUnmodifiableList());
+        } else {
+            converter = CarService::convertToDtosWithoutHomophones;
+        }
+
+        readOnlyTransaction.executeWithoutResult(
+                status -> {
+                    try (final Stream<Car> cars = repository.streamByMakeAndModel(make, model)) {
+                        forEachBatch(cars, converter, consumer);
+                    }
+                });
+    }
+
+    /**
+     * Find the cars whose model sounds like the supplied word, e.g. {@code fokus} finds a Focus.
+     * The first {@code limit} matching cars by id are found in the in-memory {@link
+     * SoundsLikeIndex} and then loaded
+     *
+     * @param word the word to match models against
+     * @param limit the max number of cars to return
+     * @param includeHomophones whether to look up the homophones of the cars' models
+     * @param deadline the instant after which the homophones are no longer waited for and are
+     *     marked as partial instead
      * @return Collection of {@link CarDto} from matching {@link Car} entities
      */
-    Collection<CarDto> findCarsByMakeAndModel(final String make, final String model) {
-        return repository.findByMakeAAndModel(make, model).stream()
-                .map(this::convertToDto)
+    Collection<CarDto> findCarsSoundingLike(
+            final String word,
+            final int limit,
+            final boolean includeHomophones,
+            final Instant deadline) {
+        final List<UUID> ids = soundsLikeIndex.find(word, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        final Collection<Car> cars = repository.findAllById(ids);
+        return includeHomophones
+                ? convertToDtos(cars, deadline)
+                : convertToDtosWithoutHomophones(cars);
+    }
+
+    /**
+     * Fetch one car more than the limit, the extra car tells whether there is a next page without
+     * a count query
+     */
+    private List<Car> findByMake(final String make, final int limit, final CarCursor after) {
+        return after == null
+                ? repository.findByMake(make, limit + 1)
+                : repository.findByMakeAfter(
+                        make, after.getNormalizedModel(), after.getId(), limit + 1);
+    }
+
+    /** Same as {@link #findByMake(String, int, CarCursor)} for a make & model */
+    private List<Car> findByMakeAndModel(
+            final String make, final String model, final int limit, final CarCursor after) {
+        return after == null
+                ? repository.findByMakeAAndModel(make, model, limit + 1)
+                : repository.findByMakeAAndModelAfter(make, model, after.getId(), limit + 1);
+    }
+
+    private static void forEachBatch(
+            final Stream<Car> cars,
+            final Function<List<Car>, Collection<CarDto>> converter,
+            final Consumer<Collection<CarDto>> consumer) {
+        final List<Car> batch = new ArrayList<>(STREAM_BATCH_SIZE);
+        cars.forEachOrdered(
+                car -> {
+                    batch.add(car);
+                    if (batch.size() == STREAM_BATCH_SIZE) {
+                        consumer.accept(converter.apply(batch));
+                        batch.clear();
+                    }
+                });
+
+        if (!batch.isEmpty()) {
+            consumer.accept(converter.apply(batch));
+        }
+    }
+
+    private static List<Car> firstCars(final List<Car> cars, final int limit) {
+        return cars.size() > limit ? cars.subList(0, limit) : cars;
+    }
+
+    private static CarCursor nextCursor(final List<Car> cars, final int limit) {
+        return cars.size() > limit ? CarCursor.after(cars.get(limit - 1)) : null;
+    }
+
+    private CarDto convertToDtoWithHomophones(final Car car, final Instant deadline) {
+        return convertToDto(
+                car, homophoneService.homophonesAsync(car.getModel(), deadline).join());
+    }
+
+    /**
+     * Convert a batch of {@link Car} entities, the homophones of every distinct model in the batch
+     * are looked up together rather than once per car
+     */
+    private Collection<CarDto> convertToDtos(final Collection<Car> cars, final Instant deadline) {
+        final Map<String, String> homophones =
+                homophoneService.homophones(
+                        cars.stream().map(Car::getModel).collect(Collectors.toUnmodifiableSet()),
+                        deadline);
+
+        return cars.stream()
+                .map(car -> convertToDto(car, homophones.get(car.getModel())))
                 .collect(Collectors.toUnmodifiableList());
     }
 
-    private CarDto convertToDto(final Car car) {
-        final String homophones =
-                datamuseRestApi.soundsLike(car.getModel()).stream()
-                        .map(SoundsLikeResponseV1::getWord)
-                        .limit(5)
-                        .collect(Collectors.joining(", "));
+    private static Collection<CarDto> convertToDtosWithoutHomophones(final Collection<Car> cars) {
+        return cars.stream()
+                .map(car -> convertToDto(car, null, false))
+                .collect(Collectors.toUnmodifiableList());
+    }
 
-        final ModelDto modelDto = new ModelDto(car.getModel(), homophones);
+    /** Convert with looked up homophones, null homophones weren't found before the deadline */
+    private static CarDto convertToDto(final Car car, final String homophones) {
+        return convertToDto(car, homophones, homophones == null);
+    }
+
+    private static CarDto convertToDto(
+            final Car car, final String homophones, final boolean homophonesPartial) {
+        final ModelDto modelDto = new ModelDto(car.getModel(), homophones, homophonesPartial);
 
         return new CarDto(car.getId(), car.getMake(), modelDto, car.getColour(), car.getYear());
     }
 
-    private Optional<Car> updateCarFromRequest(
-            final PartialUpdateCarRequestV1 request, final Car car) {
-        final String make = Objects.requireNonNullElse(request.getMake(), car.getMake());
-        final String model = Objects.requireNonNullElse(request.getModel(), car.getModel());
-        final String colour = Objects.requireNonNullElse(request.getColour(), car.getColour());
-        final Integer year = Objects.requireNonNullElse(request.getYear(), car.getYear());
+    /**
+     * Insert a car the update didn't find. A concurrent request can insert the same id in between,
+     * then the insert fails on the primary key & the car is updated instead
+     *
+     * @return true if the car was inserted, false if it was updated
+     */
+    private boolean insert(final Car car) {
+        try {
+            repository.insertAll(List.of(car));
+            return true;
+        } catch (final DataIntegrityViolationException e) {
+            LOGGER.debug("Car with id: {} was created concurrently, updating it", car.getId());
+            repository.update(car);
+            return false;
+        }
+    }
+
+    private List<BulkAddResult> addChunk(final List<CreateOrUpdateCarRequestV1> requests) {
+        final List<BulkAddResult> results = new ArrayList<>(requests.size());
+        final List<Car> cars = new ArrayList<>(requests.size());
+        for (final CreateOrUpdateCarRequestV1 request : requests) {
+            final List<String> errors = validate(request);
+            if (errors.isEmpty()) {
+                final Car car = toCar(UUID.randomUUID(), request);
+                cars.add(car);
+                results.add(BulkAddResult.created(car.getId()));
+            } else {
+                results.add(BulkAddResult.invalid(errors));
+            }
+        }
+
+        if (cars.isEmpty()) {
+            return results;
+        }
+
+        try {
+            repository.insertAll(cars);
+        } catch (final DataAccessException e) {
+            LOGGER.warn("Error adding a chunk of {} cars", cars.size(), e);
+            return results.stream()
+                    .map(
+                            result ->
+                                    result.getStatus() == BulkAddResult.Status.CREATED
+                                            ? BulkAddResult.failed()
+                                            : result)
+                    .collect(Collectors.toList());
+        }
+
+        cars.forEach(car -> soundsLikeIndex.put(car.getId(), car.getModel()));
+        cars.stream().map(Car::getModel).distinct().forEach(homophoneService::enrichAsync);
+        return results;
+    }
+
+    /** The constraint violations of a request as {@code <field> <message>}, sorted */
+    private List<String> validate(final CreateOrUpdateCarRequestV1 request) {
+        if (request == null) {
+            return List.of("must not be null");
+        }
+
+        return validator.validate(request).stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.toUnmodifiableList());
+    }
 
-        final Car updatedCar = new Car(car.getId(), make, model, colour, year);
-        return Objects.equals(car, updatedCar) ? Optional.empty() : Optional.of(updatedCar);
+    private static Car toCar(final UUID id, final CreateOrUpdateCarRequestV1 request) {
+        return new Car(
+                id, request.getMake(), request.getModel(), request.getColour(), request.getYear());
     }
 }
@@ -0,0 +1,19 @@
+package uk.co.aaronvaz.carsapi;
+
+import java.time.Duration;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lets request params & headers be bound to a {@link Duration}, accepts the same formats as
+ * configuration properties e.g. {@code 250ms}, {@code 2s} or a plain number of milliseconds
+ */
+@Component
+class DurationConverter implements Converter<String, Duration> {
+
+    @Override
+    public Duration convert(final String source) {
+        return DurationStyle.detectAndParse(source);
+    }
+}
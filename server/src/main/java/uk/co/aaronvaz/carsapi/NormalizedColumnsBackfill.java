@@ -0,0 +1,30 @@
+package uk.co.aaronvaz.carsapi;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills in the normalized make & model of cars stored before those columns were added. Runs on
+ * startup before the app reports ready, so that make & model lookups find every car
+ */
+@Component
+class NormalizedColumnsBackfill implements ApplicationRunner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NormalizedColumnsBackfill.class);
+
+    private final CarRepository repository;
+
+    NormalizedColumnsBackfill(final CarRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public void run(final ApplicationArguments args) {
+        final int updated = repository.normalizeLegacyCars();
+        if (updated > 0) {
+            LOGGER.info("Normalized the make & model of {} cars", updated);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package uk.co.aaronvaz.carsapi;
+
+import java.time.Duration;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties("cars.api")
+class Properties {
+
+    @NotNull private final Duration requestTimeout;
+
+    @NotNull private final Duration maxRequestTimeout;
+
+    @Positive private final int defaultPageLimit;
+
+    @Positive private final int maxPageLimit;
+
+    @Positive private final int bulkChunkSize;
+
+    @NotNull private final Duration streamTimeout;
+
+    @ConstructorBinding
+    Properties(
+            @DefaultValue("1s") final Duration requestTimeout,
+            @DefaultValue("10s") final Duration maxRequestTimeout,
+            @DefaultValue("100") final int defaultPageLimit,
+            @DefaultValue("1000") final int maxPageLimit,
+            @DefaultValue("500") final int bulkChunkSize,
+            @DefaultValue("10m") final Duration streamTimeout) {
+        this.requestTimeout = requestTimeout;
+        this.maxRequestTimeout = maxRequestTimeout;
+        this.defaultPageLimit = defaultPageLimit;
+        this.maxPageLimit = maxPageLimit;
+        this.bulkChunkSize = bulkChunkSize;
+        this.streamTimeout = streamTimeout;
+    }
+
+    Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    Duration getMaxRequestTimeout() {
+        return maxRequestTimeout;
+    }
+
+    int getDefaultPageLimit() {
+        return defaultPageLimit;
+    }
+
+    int getMaxPageLimit() {
+        return maxPageLimit;
+    }
+
+    int getBulkChunkSize() {
+        return bulkChunkSize;
+    }
+
+    Duration getStreamTimeout() {
+        return streamTimeout;
+    }
+}
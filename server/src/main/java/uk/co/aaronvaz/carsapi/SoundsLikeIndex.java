@@ -0,0 +1,161 @@
+package uk.co.aaronvaz.carsapi;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.commons.codec.language.DoubleMetaphone;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory inverted index from the Double Metaphone encodings of a car's model to the ids of the
+ * cars with that model, kept in id order so that a search reads only as many ids as it returns.
+ * Built from the DB once on startup before the app reports ready, after that {@link CarService}
+ * keeps it up to date on every write so that a sounds like search never scans the table
+ */
+@Component
+class SoundsLikeIndex implements ApplicationRunner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SoundsLikeIndex.class);
+
+    private final DoubleMetaphone encoder = new DoubleMetaphone();
+
+    private final Map<String, NavigableSet<UUID>> idsByCode = new ConcurrentHashMap<>();
+
+    private final Map<UUID, Set<String>> codesById = new ConcurrentHashMap<>();
+
+    // cars with the same model share one set of codes rather than holding a copy each
+    private final Map<Set<String>, Set<String>> internedCodes = new ConcurrentHashMap<>();
+
+    private final CarRepository repository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    SoundsLikeIndex(
+            final CarRepository repository, final PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Index every stored car, streaming only the id & model of each rather than loading every
+     * entity at once
+     */
+    @Override
+    public void run(final ApplicationArguments args) {
+        final AtomicInteger indexed = new AtomicInteger();
+        readOnlyTransaction.executeWithoutResult(
+                status -> {
+                    try (final Stream<CarRepository.IdAndModel> cars =
+                            repository.streamIdsAndModels()) {
+                        cars.forEach(
+                                car -> {
+                                    put(car.getId(), car.getModel());
+                                    indexed.incrementAndGet();
+                                });
+                    }
+                });
+
+        LOGGER.info("Indexed {} cars under {} phonetic codes", indexed.get(), idsByCode.size());
+    }
+
+    /**
+     * Index a car under the encodings of its model, replacing whatever it was indexed under before
+     *
+     * @param id the id of the car
+     * @param model the car's current model
+     */
+    void put(final UUID id, final String model) {
+        final Set<String> codes = internedCodes.computeIfAbsent(codes(model), Function.identity());
+        codesById.compute(
+                id,
+                (key, previousCodes) -> {
+                    if (previousCodes != null) {
+                        previousCodes.stream()
+                                .filter(code -> !codes.contains(code))
+                                .forEach(code -> removeFromCode(code, id));
+                    }
+
+                    codes.forEach(code -> addToCode(code, id));
+                    return codes.isEmpty() ? null : codes;
+                });
+    }
+
+    /**
+     * Remove a car from the index
+     *
+     * @param id the id of the car
+     */
+    void remove(final UUID id) {
+        codesById.computeIfPresent(
+                id,
+                (key, previousCodes) -> {
+                    previousCodes.forEach(code -> removeFromCode(code, id));
+                    return null;
+                });
+    }
+
+    /**
+     * Find the cars whose model shares a primary or alternate encoding with the word. Only the
+     * first {@code limit} ids of each encoding are read
+     *
+     * @param word the word to match, e.g. a misspelled model
+     * @param limit the max number of ids to return
+     * @return ids of the first {@code limit} matching cars, in id order
+     */
+    List<UUID> find(final String word, final int limit) {
+        final NavigableSet<UUID> ids = new TreeSet<>();
+        for (final String code : codes(word)) {
+            final NavigableSet<UUID> codeIds = idsByCode.get(code);
+            if (codeIds != null) {
+                codeIds.stream().limit(limit).forEach(ids::add);
+            }
+        }
+
+        return ids.stream().limit(limit).collect(Collectors.toUnmodifiableList());
+    }
+
+    private Set<String> codes(final String word) {
+        final String lowerCaseWord = word.toLowerCase(Locale.ROOT);
+        return Stream.of(
+                        encoder.doubleMetaphone(lowerCaseWord),
+                        encoder.doubleMetaphone(lowerCaseWord, true))
+                .filter(code -> code != null && !code.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private void addToCode(final String code, final UUID id) {
+        idsByCode.compute(
+                code,
+                (key, ids) -> {
+                    final NavigableSet<UUID> updatedIds =
+                            ids == null ? new ConcurrentSkipListSet<>() : ids;
+                    updatedIds.add(id);
+                    return updatedIds;
+                });
+    }
+
+    private void removeFromCode(final String code, final UUID id) {
+        idsByCode.computeIfPresent(
+                code,
+                (key, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+    }
+}
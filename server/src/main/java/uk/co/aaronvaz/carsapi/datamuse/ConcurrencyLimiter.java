@@ -0,0 +1,183 @@
+package uk.co.aaronvaz.carsapi.datamuse;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Limits the number of calls in flight to the Datamuse api with an additive increase,
+ * multiplicative decrease (AIMD) limit. The limit grows by one for every fast call made while at
+ * least half of it is in use and shrinks by {@code backoff-ratio} for every call that is dropped or
+ * slower than {@code latency-threshold}. A call is dropped when it times out, fails with an I/O
+ * error or gets a 5xx or 429 response, other failures like a 4xx for a bad word say nothing about
+ * how loaded the api is. Calls over the limit are rejected straight away
+ */
+class ConcurrencyLimiter {
+
+    static final String LIMIT_METRIC = "datamuse.concurrency.limit";
+
+    static final String IN_FLIGHT_METRIC = "datamuse.concurrency.in-flight";
+
+    static final String REJECTIONS_METRIC = "datamuse.concurrency.rejections";
+
+    private final Properties.ConcurrencyLimit properties;
+
+    private final Ticker ticker;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Counter rejections;
+
+    private double limit;
+
+    ConcurrencyLimiter(
+            final Properties.ConcurrencyLimit properties, final MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Ticker.systemTicker());
+    }
+
+    ConcurrencyLimiter(
+            final Properties.ConcurrencyLimit properties,
+            final MeterRegistry meterRegistry,
+            final Ticker ticker) {
+        this.properties = properties;
+        this.ticker = ticker;
+        this.limit = properties.getInitialLimit();
+        this.rejections = meterRegistry.counter(REJECTIONS_METRIC);
+
+        Gauge.builder(LIMIT_METRIC, this, ConcurrencyLimiter::getLimit).register(meterRegistry);
+        Gauge.builder(IN_FLIGHT_METRIC, inFlight, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Make the call if the limit allows it
+     *
+     * @param call the call to make
+     * @return the result of the call
+     * @throws LimitExceededException if the limit is reached, the call isn't made
+     */
+    <T> T execute(final Supplier<T> call) {
+        if (!properties.isEnabled()) {
+            return call.get();
+        }
+
+        final int used = acquire();
+        final long start = ticker.read();
+        boolean dropped = false;
+        try {
+            return call.get();
+        } catch (final RuntimeException e) {
+            dropped = isDrop(e);
+            throw e;
+        } finally {
+            release(used, start, dropped);
+        }
+    }
+
+    /**
+     * Start the call if the limit allows it, the call holds its slot until the future completes
+     *
+     * @param call starts the call to make
+     * @return future of the result of the call, completed with a {@link LimitExceededException} if
+     *     the limit is reached and the call isn't started
+     */
+    <T> CompletableFuture<T> executeAsync(final Supplier<CompletableFuture<T>> call) {
+        if (!properties.isEnabled()) {
+            return call.get();
+        }
+
+        final int used;
+        try {
+            used = acquire();
+        } catch (final LimitExceededException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        final long start = ticker.read();
+        final CompletableFuture<T> result;
+        try {
+            result = call.get();
+        } catch (final RuntimeException e) {
+            release(used, start, isDrop(e));
+            throw e;
+        }
+
+        return result.whenComplete(
+                (value, error) -> release(used, start, error != null && isDrop(error)));
+    }
+
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    private int acquire() {
+        while (true) {
+            final int current = inFlight.get();
+            if (current >= getLimit()) {
+                rejections.increment();
+                throw new LimitExceededException(current);
+            }
+
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /** Whether the call failed in a way that means the api is overloaded */
+    private static boolean isDrop(final Throwable error) {
+        final Throwable e =
+                error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause()
+                        : error;
+        if (e instanceof HttpStatusCodeException) {
+            final HttpStatus status = ((HttpStatusCodeException) e).getStatusCode();
+            return status.is5xxServerError() || status == HttpStatus.TOO_MANY_REQUESTS;
+        }
+
+        // RestTemplate wraps I/O errors & socket timeouts in a ResourceAccessException
+        return e instanceof IOException
+                || e instanceof ResourceAccessException
+                || e instanceof TimeoutException;
+    }
+
+    private void release(final int used, final long start, final boolean dropped) {
+        inFlight.decrementAndGet();
+
+        final boolean slow = ticker.read() - start > properties.getLatencyThreshold().toNanos();
+        synchronized (this) {
+            if (dropped || slow) {
+                limit = Math.max(properties.getMinLimit(), limit * properties.getBackoffRatio());
+            } else if (used * 2 >= limit) {
+                // only grow while the limit is actually being used, an idle service proves nothing
+                limit = Math.min(properties.getMaxLimit(), limit + 1);
+            }
+        }
+    }
+
+    /** Thrown when a call is rejected because the concurrency limit is reached */
+    static class LimitExceededException extends RuntimeException {
+
+        LimitExceededException(final int inFlight) {
+            // rejections happen under load, skip filling in a stack trace no one will read
+            super(
+                    "Concurrency limit reached with " + inFlight + " calls in flight",
+                    null,
+                    false,
+                    false);
+        }
+    }
+}
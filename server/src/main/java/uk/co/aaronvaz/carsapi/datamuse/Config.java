@@ -1,8 +1,23 @@
 package uk.co.aaronvaz.carsapi.datamuse;
 
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import java.net.http.HttpClient;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
@@ -10,7 +25,104 @@ public class Config {
 
     @Bean("datamuse")
     RestTemplate datamuseRestTemplate(
-            final Properties properties, final RestTemplateBuilder restTemplateBuilder) {
-        return restTemplateBuilder.rootUri(properties.getV1BaseURL()).build();
+            final Properties properties,
+            final RestTemplateBuilder restTemplateBuilder,
+            final CloseableHttpClient datamuseHttpClient) {
+        return restTemplateBuilder
+                .rootUri(properties.getV1BaseURL())
+                .requestFactory(
+                        () -> new HttpComponentsClientHttpRequestFactory(datamuseHttpClient))
+                .build();
+    }
+
+    @Bean
+    PoolingHttpClientConnectionManager datamuseConnectionManager(final Properties properties) {
+        final PoolingHttpClientConnectionManager connectionManager =
+                new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(properties.getHttp().getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(properties.getHttp().getMaxConnectionsPerRoute());
+        return connectionManager;
+    }
+
+    @Bean
+    CloseableHttpClient datamuseHttpClient(
+            final Properties properties,
+            final PoolingHttpClientConnectionManager datamuseConnectionManager) {
+        final Properties.Http http = properties.getHttp();
+        final RequestConfig requestConfig =
+                RequestConfig.custom()
+                        .setConnectTimeout(Math.toIntExact(http.getConnectTimeout().toMillis()))
+                        .setSocketTimeout(Math.toIntExact(http.getReadTimeout().toMillis()))
+                        .setConnectionRequestTimeout(
+                                Math.toIntExact(http.getPoolAcquireTimeout().toMillis()))
+                        .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(datamuseConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(http.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Bean
+    HttpClient datamuseAsyncHttpClient(final Properties properties) {
+        return HttpClient.newBuilder()
+                .connectTimeout(properties.getHttp().getConnectTimeout())
+                .build();
+    }
+
+    @Bean
+    Hedger datamuseHedger(final Properties properties, final MeterRegistry meterRegistry) {
+        return new Hedger(properties.getHedging(), meterRegistry);
+    }
+
+    @Bean
+    ConcurrencyLimiter datamuseConcurrencyLimiter(
+            final Properties properties, final MeterRegistry meterRegistry) {
+        return new ConcurrencyLimiter(properties.getConcurrencyLimit(), meterRegistry);
+    }
+
+    @Bean
+    MeterBinder datamuseConnectionPoolMetrics(
+            final PoolingHttpClientConnectionManager datamuseConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(
+                datamuseConnectionManager, "datamuse");
+    }
+
+    @Bean
+    CircuitBreakerRegistry datamuseCircuitBreakerRegistry(final Properties properties) {
+        final Properties.CircuitBreaker settings = properties.getCircuitBreaker();
+        final CircuitBreakerConfig config =
+                CircuitBreakerConfig.custom()
+                        .failureRateThreshold(settings.getFailureRateThreshold())
+                        .slowCallRateThreshold(settings.getSlowCallRateThreshold())
+                        .slowCallDurationThreshold(settings.getSlowCallDuration())
+                        .waitDurationInOpenState(settings.getWaitDurationInOpenState())
+                        .permittedNumberOfCallsInHalfOpenState(
+                                settings.getPermittedCallsInHalfOpenState())
+                        .slidingWindowSize(settings.getSlidingWindowSize())
+                        .minimumNumberOfCalls(settings.getMinimumNumberOfCalls())
+                        // a 4xx means the request was bad & a rejection means we are busy, neither
+                        // means that Datamuse is unhealthy
+                        .ignoreExceptions(
+                                HttpClientErrorException.class,
+                                ConcurrencyLimiter.LimitExceededException.class)
+                        .build();
+
+        return CircuitBreakerRegistry.of(config);
+    }
+
+    @Bean
+    CircuitBreaker datamuseCircuitBreaker(
+            final CircuitBreakerRegistry datamuseCircuitBreakerRegistry) {
+        return datamuseCircuitBreakerRegistry.circuitBreaker("datamuse");
+    }
+
+    @Bean
+    MeterBinder datamuseCircuitBreakerMetrics(
+            final CircuitBreakerRegistry datamuseCircuitBreakerRegistry) {
+        return TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(
+                datamuseCircuitBreakerRegistry);
     }
 }
@@ -1,14 +1,36 @@
 package uk.co.aaronvaz.carsapi.datamuse;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.UnknownHttpStatusCodeException;
 import org.springframework.web.util.UriComponentsBuilder;
 import uk.co.aaronvaz.carsapi.datamuse.model.SoundsLikeResponseV1;
 
@@ -18,39 +40,205 @@ public class DatamuseRestApi {
 
     private final RestTemplate restTemplate;
 
-    public DatamuseRestApi(@Qualifier("datamuse") final RestTemplate restTemplate) {
+    private final HttpClient httpClient;
+
+    private final ObjectMapper objectMapper;
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final ConcurrencyLimiter concurrencyLimiter;
+
+    private final Hedger hedger;
+
+    private final Properties properties;
+
+    private final SingleFlight<String, Collection<SoundsLikeResponseV1>> singleFlight =
+            new SingleFlight<>();
+
+    DatamuseRestApi(
+            @Qualifier("datamuse") final RestTemplate restTemplate,
+            final HttpClient httpClient,
+            final ObjectMapper objectMapper,
+            final CircuitBreaker circuitBreaker,
+            final ConcurrencyLimiter concurrencyLimiter,
+            final Hedger hedger,
+            final Properties properties) {
         this.restTemplate = restTemplate;
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.circuitBreaker = circuitBreaker;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.hedger = hedger;
+        this.properties = properties;
     }
 
     /**
      * Datamuse api that returns words that sound like the input word provided e.g.
      * https://api.datamuse.com/words?sl=jirraf
      *
+     * <p>Only the top {@code datamuse.api.max-results} words are requested, ranked by score unless
+     * {@code datamuse.api.rank-by-score} is disabled
+     *
+     * <p>Concurrent calls for the same input share a single request to the Datamuse api. Calls are
+     * guarded by a circuit breaker, while it is open no request is made and a {@link
+     * CallRejectedException} is thrown straight away. The same goes for calls made while the
+     * adaptive limit on calls in flight is reached. Failed requests return an empty collection
+     *
      * @param input the word to search homophones for
-     * @return SoundsLikeResponseV1 which contains all the words that are homophones of the input
+     * @return SoundsLikeResponseV1 which contains the top words that are homophones of the input
+     * @throws CallRejectedException if no request was made
      */
     public Collection<SoundsLikeResponseV1> soundsLike(final String input) {
-        final String uri =
-                UriComponentsBuilder.newInstance()
-                        .path("/words")
-                        .queryParam("sl", input)
-                        .build()
-                        .toUri()
-                        .toString();
+        return singleFlight.execute(input, () -> callSoundsLike(input));
+    }
+
+    /**
+     * Non-blocking version of {@link #soundsLike(String)}, no thread is held while the request to
+     * the Datamuse api is in flight. Shares in flight requests and the circuit breaker with the
+     * blocking version
+     *
+     * <p>With {@code datamuse.api.hedging.enabled} a request that is slower than the configured
+     * percentile of recent requests is hedged with a second identical request, the first to
+     * succeed wins
+     *
+     * @param input the word to search homophones for
+     * @return future that completes with the words that are homophones of the input, or
+     *     exceptionally with a {@link CallRejectedException} if no request was made
+     */
+    public CompletableFuture<Collection<SoundsLikeResponseV1>> soundsLikeAsync(final String input) {
+        return singleFlight.executeAsync(input, () -> callSoundsLikeAsync(input));
+    }
+
+    private Collection<SoundsLikeResponseV1> callSoundsLike(final String input) {
+        final String uri = soundsLikeUri(input);
 
         try {
-            final SoundsLikeResponseV1[] response =
-                    restTemplate.getForObject(uri, SoundsLikeResponseV1[].class);
+            return circuitBreaker.executeSupplier(
+                    () -> concurrencyLimiter.execute(() -> getSoundsLike(uri)));
+        } catch (final CallNotPermittedException
+                | ConcurrencyLimiter.LimitExceededException
+                | RestClientException e) {
+            return handleError(uri, e);
+        }
+    }
 
-            if (response == null) {
+    private CompletableFuture<Collection<SoundsLikeResponseV1>> callSoundsLikeAsync(
+            final String input) {
+        final String uri = soundsLikeUri(input);
+        final HttpRequest request =
+                HttpRequest.newBuilder(URI.create(properties.getV1BaseURL() + uri))
+                        .timeout(properties.getHttp().getReadTimeout())
+                        .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                        .GET()
+                        .build();
+
+        return circuitBreaker
+                .executeCompletionStage(
+                        () ->
+                                concurrencyLimiter.executeAsync(
+                                        () -> hedger.execute(() -> sendSoundsLike(uri, request))))
+                .toCompletableFuture()
+                .exceptionally(e -> handleError(uri, e));
+    }
+
+    private CompletableFuture<Collection<SoundsLikeResponseV1>> sendSoundsLike(
+            final String uri, final HttpRequest request) {
+        return httpClient
+                .sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> readSoundsLike(uri, response));
+    }
+
+    private Collection<SoundsLikeResponseV1> getSoundsLike(final String uri) {
+        return restTemplate.execute(
+                uri,
+                HttpMethod.GET,
+                request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON)),
+                response -> readSoundsLike(uri, response.getBody()));
+    }
+
+    private Collection<SoundsLikeResponseV1> readSoundsLike(
+            final String uri, final HttpResponse<byte[]> response) {
+        final HttpStatus status = HttpStatus.resolve(response.statusCode());
+        if (status == null) {
+            throw new UnknownHttpStatusCodeException(
+                    response.statusCode(), "", null, response.body(), null);
+        } else if (status.is4xxClientError()) {
+            throw new HttpClientErrorException(status);
+        } else if (status.isError()) {
+            throw new HttpServerErrorException(status);
+        }
+
+        try {
+            return readSoundsLike(uri, new ByteArrayInputStream(response.body()));
+        } catch (final IOException e) {
+            throw new RestClientException("Error reading response from " + uri, e);
+        }
+    }
+
+    /**
+     * Parse the response array element by element, stopping after {@code datamuse.api.max-results}
+     * elements so that any further results are never bound
+     */
+    private Collection<SoundsLikeResponseV1> readSoundsLike(
+            final String uri, final InputStream body) throws IOException {
+        try (final JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
                 LOGGER.warn("Empty response received from {}", uri);
                 return List.of();
             }
 
-            return List.of(response);
-        } catch (final HttpClientErrorException | HttpServerErrorException e) {
+            final List<SoundsLikeResponseV1> results = new ArrayList<>();
+            while (results.size() < properties.getMaxResults()
+                    && parser.nextToken() == JsonToken.START_OBJECT) {
+                results.add(objectMapper.readValue(parser, SoundsLikeResponseV1.class));
+            }
+
+            if (properties.isRankByScore()) {
+                results.sort(
+                        Comparator.comparingInt(SoundsLikeResponseV1::getScore).reversed());
+            }
+
+            return List.copyOf(results);
+        }
+    }
+
+    private Collection<SoundsLikeResponseV1> handleError(final String uri, final Throwable error) {
+        final Throwable e = error instanceof CompletionException ? error.getCause() : error;
+        if (e instanceof CallNotPermittedException) {
+            LOGGER.debug("Circuit breaker open, skipping call to {}", uri);
+            throw new CallRejectedException(e);
+        } else if (e instanceof ConcurrencyLimiter.LimitExceededException) {
+            LOGGER.debug("{}, skipping call to {}", e.getMessage(), uri);
+            throw new CallRejectedException(e);
+        } else if (e instanceof HttpClientErrorException
+                || e instanceof HttpServerErrorException) {
             LOGGER.warn("Error response received from {}, message: {}", uri, e.getMessage());
-            return List.of();
+        } else {
+            LOGGER.warn("Error calling {}, message: {}", uri, e.getMessage());
+        }
+
+        return List.of();
+    }
+
+    private String soundsLikeUri(final String input) {
+        return UriComponentsBuilder.newInstance()
+                .path("/words")
+                .queryParam("sl", input)
+                .queryParam("max", properties.getMaxResults())
+                .build()
+                .toUri()
+                .toString();
+    }
+
+    /**
+     * Thrown when a call is rejected without a request to the Datamuse api, because the circuit
+     * breaker is open or the concurrency limit is reached. Unlike an empty response it says nothing
+     * about the word
+     */
+    static class CallRejectedException extends RuntimeException {
+
+        CallRejectedException(final Throwable cause) {
+            super(cause.getMessage(), cause, false, false);
         }
     }
 }
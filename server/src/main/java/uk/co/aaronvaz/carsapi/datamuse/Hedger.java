@@ -0,0 +1,157 @@
+package uk.co.aaronvaz.carsapi.datamuse;
+
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Sends a second identical request when the first hasn't answered within a percentile of recent
+ * latencies, whichever request succeeds first wins. Hedges are capped to a percentage of requests
+ * by a budget that every request tops up & every hedge spends
+ */
+class Hedger {
+
+    static final String HEDGES_METRIC = "datamuse.hedges";
+
+    /** Latencies needed before the percentile is trusted enough to hedge on */
+    static final int MIN_SAMPLES = 20;
+
+    /** Max number of hedges the budget can save up during quiet periods */
+    private static final double MAX_BUDGET = 10;
+
+    private final Properties.Hedging properties;
+
+    private final Ticker ticker;
+
+    /** Starts the hedges once their delay has passed */
+    private final Scheduler scheduler;
+
+    private final Counter hedges;
+
+    private final long[] latencies;
+
+    private int samples;
+
+    private int next;
+
+    private long delayNanos;
+
+    private double budget;
+
+    Hedger(final Properties.Hedging properties, final MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Ticker.systemTicker(), Scheduler.systemScheduler());
+    }
+
+    Hedger(
+            final Properties.Hedging properties,
+            final MeterRegistry meterRegistry,
+            final Ticker ticker,
+            final Scheduler scheduler) {
+        this.properties = properties;
+        this.ticker = ticker;
+        this.scheduler = scheduler;
+        this.hedges = meterRegistry.counter(HEDGES_METRIC);
+        this.latencies = new long[properties.getWindowSize()];
+    }
+
+    /**
+     * Start the call and hedge it with a second call if it is slow & the budget allows
+     *
+     * @param call starts a request, called a second time for the hedge
+     * @return future completed by the first call to succeed, or with the error of the last call to
+     *     fail
+     */
+    <T> CompletableFuture<T> execute(final Supplier<CompletableFuture<T>> call) {
+        if (!properties.isEnabled()) {
+            return call.get();
+        }
+
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final AtomicInteger pending = new AtomicInteger(1);
+        final BiConsumer<T, Throwable> complete =
+                (value, error) -> {
+                    if (error == null) {
+                        result.complete(value);
+                    } else if (pending.decrementAndGet() == 0) {
+                        result.completeExceptionally(error);
+                    }
+                };
+
+        final long delay = hedgeDelay();
+        attempt(call).whenComplete(complete);
+
+        if (delay > 0) {
+            scheduler.schedule(
+                    ForkJoinPool.commonPool(),
+                    () -> {
+                        // skip if done, or if the first call failed in the meantime
+                        if (!result.isDone() && pending.getAndUpdate(p -> p == 0 ? 0 : p + 1) > 0) {
+                            if (spendBudget()) {
+                                hedges.increment();
+                                attempt(call).whenComplete(complete);
+                            } else {
+                                pending.decrementAndGet();
+                            }
+                        }
+                    },
+                    delay,
+                    TimeUnit.NANOSECONDS);
+        }
+
+        return result;
+    }
+
+    /** Current hedge delay, zero while there aren't enough samples to hedge on */
+    synchronized Duration getDelay() {
+        return Duration.ofNanos(delayNanos);
+    }
+
+    private <T> CompletableFuture<T> attempt(final Supplier<CompletableFuture<T>> call) {
+        final long start = ticker.read();
+        return call.get()
+                .whenComplete(
+                        (value, error) -> {
+                            if (error == null) {
+                                record(ticker.read() - start);
+                            }
+                        });
+    }
+
+    /** Reserve budget for this request & return the delay to hedge after, 0 for no hedge */
+    private synchronized long hedgeDelay() {
+        budget = Math.min(MAX_BUDGET, budget + properties.getMaxRate() / 100);
+        return delayNanos;
+    }
+
+    private synchronized boolean spendBudget() {
+        if (budget < 1) {
+            return false;
+        }
+
+        budget--;
+        return true;
+    }
+
+    private synchronized void record(final long latencyNanos) {
+        latencies[next] = latencyNanos;
+        next = (next + 1) % latencies.length;
+        samples = Math.min(samples + 1, latencies.length);
+
+        // sorting the window is cheap next to a http call, but no need to do it on every response
+        if (samples >= MIN_SAMPLES && (next % MIN_SAMPLES == 0 || delayNanos == 0)) {
+            final long[] window = Arrays.copyOf(latencies, samples);
+            Arrays.sort(window);
+            final int index = (int) Math.ceil(properties.getPercentile() / 100 * window.length) - 1;
+            delayNanos = Math.max(window[Math.max(0, index)], properties.getMinDelay().toNanos());
+        }
+    }
+}
@@ -1,6 +1,13 @@
 package uk.co.aaronvaz.carsapi.datamuse;
 
+import java.time.Duration;
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.ConstructorBinding;
 import org.springframework.boot.context.properties.bind.DefaultValue;
@@ -12,12 +19,351 @@ class Properties {
 
     @NotBlank private final String v1BaseURL;
 
+    @Positive @Max(1000) private final int maxResults;
+
+    private final boolean rankByScore;
+
+    @Valid private final Cache cache;
+
+    @Valid private final NegativeCache negativeCache;
+
+    @Valid private final Http http;
+
+    @Valid private final CircuitBreaker circuitBreaker;
+
+    @Valid private final Hedging hedging;
+
+    @Valid private final ConcurrencyLimit concurrencyLimit;
+
     @ConstructorBinding
-    Properties(@DefaultValue("") final String v1BaseURL) {
+    Properties(
+            @DefaultValue("") final String v1BaseURL,
+            @DefaultValue("5") final int maxResults,
+            @DefaultValue("true") final boolean rankByScore,
+            @DefaultValue final Cache cache,
+            @DefaultValue final NegativeCache negativeCache,
+            @DefaultValue final Http http,
+            @DefaultValue final CircuitBreaker circuitBreaker,
+            @DefaultValue final Hedging hedging,
+            @DefaultValue final ConcurrencyLimit concurrencyLimit) {
         this.v1BaseURL = v1BaseURL;
+        this.maxResults = maxResults;
+        this.rankByScore = rankByScore;
+        this.cache = cache;
+        this.negativeCache = negativeCache;
+        this.http = http;
+        this.circuitBreaker = circuitBreaker;
+        this.hedging = hedging;
+        this.concurrencyLimit = concurrencyLimit;
     }
 
     String getV1BaseURL() {
         return v1BaseURL;
     }
+
+    int getMaxResults() {
+        return maxResults;
+    }
+
+    boolean isRankByScore() {
+        return rankByScore;
+    }
+
+    Cache getCache() {
+        return cache;
+    }
+
+    NegativeCache getNegativeCache() {
+        return negativeCache;
+    }
+
+    Http getHttp() {
+        return http;
+    }
+
+    CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    Hedging getHedging() {
+        return hedging;
+    }
+
+    ConcurrencyLimit getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    /** Settings for the in-memory cache that sits in front of the sounds like api */
+    static class Cache {
+
+        @Positive private final long maximumSize;
+
+        @NotNull private final Duration expireAfterWrite;
+
+        Cache(
+                @DefaultValue("10000") final long maximumSize,
+                @DefaultValue("12h") final Duration expireAfterWrite) {
+            this.maximumSize = maximumSize;
+            this.expireAfterWrite = expireAfterWrite;
+        }
+
+        long getMaximumSize() {
+            return maximumSize;
+        }
+
+        Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+    }
+
+    /** Settings for the cache of words whose sounds like lookup failed or came back empty */
+    static class NegativeCache {
+
+        @Positive private final long maximumSize;
+
+        @NotNull private final Duration ttl;
+
+        @NotNull private final Duration maxTtl;
+
+        NegativeCache(
+                @DefaultValue("10000") final long maximumSize,
+                @DefaultValue("1m") final Duration ttl,
+                @DefaultValue("1h") final Duration maxTtl) {
+            this.maximumSize = maximumSize;
+            this.ttl = ttl;
+            this.maxTtl = maxTtl;
+        }
+
+        long getMaximumSize() {
+            return maximumSize;
+        }
+
+        Duration getTtl() {
+            return ttl;
+        }
+
+        Duration getMaxTtl() {
+            return maxTtl;
+        }
+    }
+
+    /** Settings for the pooled http client used to call the Datamuse api */
+    static class Http {
+
+        @NotNull private final Duration connectTimeout;
+
+        @NotNull private final Duration readTimeout;
+
+        @NotNull private final Duration poolAcquireTimeout;
+
+        @NotNull private final Duration idleTimeout;
+
+        @Positive private final int maxConnections;
+
+        @Positive private final int maxConnectionsPerRoute;
+
+        Http(
+                @DefaultValue("1s") final Duration connectTimeout,
+                @DefaultValue("2s") final Duration readTimeout,
+                @DefaultValue("500ms") final Duration poolAcquireTimeout,
+                @DefaultValue("30s") final Duration idleTimeout,
+                @DefaultValue("50") final int maxConnections,
+                @DefaultValue("50") final int maxConnectionsPerRoute) {
+            this.connectTimeout = connectTimeout;
+            this.readTimeout = readTimeout;
+            this.poolAcquireTimeout = poolAcquireTimeout;
+            this.idleTimeout = idleTimeout;
+            this.maxConnections = maxConnections;
+            this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        }
+
+        Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        Duration getReadTimeout() {
+            return readTimeout;
+        }
+
+        Duration getPoolAcquireTimeout() {
+            return poolAcquireTimeout;
+        }
+
+        Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        int getMaxConnections() {
+            return maxConnections;
+        }
+
+        int getMaxConnectionsPerRoute() {
+            return maxConnectionsPerRoute;
+        }
+    }
+
+    /** Settings for the circuit breaker that guards calls to the Datamuse api */
+    static class CircuitBreaker {
+
+        @Positive @Max(100) private final float failureRateThreshold;
+
+        @Positive @Max(100) private final float slowCallRateThreshold;
+
+        @NotNull private final Duration slowCallDuration;
+
+        @NotNull private final Duration waitDurationInOpenState;
+
+        @Positive private final int permittedCallsInHalfOpenState;
+
+        @Positive private final int slidingWindowSize;
+
+        @Positive private final int minimumNumberOfCalls;
+
+        CircuitBreaker(
+                @DefaultValue("50") final float failureRateThreshold,
+                @DefaultValue("50") final float slowCallRateThreshold,
+                @DefaultValue("1s") final Duration slowCallDuration,
+                @DefaultValue("30s") final Duration waitDurationInOpenState,
+                @DefaultValue("5") final int permittedCallsInHalfOpenState,
+                @DefaultValue("50") final int slidingWindowSize,
+                @DefaultValue("20") final int minimumNumberOfCalls) {
+            this.failureRateThreshold = failureRateThreshold;
+            this.slowCallRateThreshold = slowCallRateThreshold;
+            this.slowCallDuration = slowCallDuration;
+            this.waitDurationInOpenState = waitDurationInOpenState;
+            this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+            this.slidingWindowSize = slidingWindowSize;
+            this.minimumNumberOfCalls = minimumNumberOfCalls;
+        }
+
+        float getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+
+        float getSlowCallRateThreshold() {
+            return slowCallRateThreshold;
+        }
+
+        Duration getSlowCallDuration() {
+            return slowCallDuration;
+        }
+
+        Duration getWaitDurationInOpenState() {
+            return waitDurationInOpenState;
+        }
+
+        int getPermittedCallsInHalfOpenState() {
+            return permittedCallsInHalfOpenState;
+        }
+
+        int getSlidingWindowSize() {
+            return slidingWindowSize;
+        }
+
+        int getMinimumNumberOfCalls() {
+            return minimumNumberOfCalls;
+        }
+    }
+
+    /** Settings for hedging slow requests to the Datamuse api with a second identical request */
+    static class Hedging {
+
+        private final boolean enabled;
+
+        @Positive @Max(100) private final double percentile;
+
+        @NotNull private final Duration minDelay;
+
+        @PositiveOrZero @Max(100) private final double maxRate;
+
+        @Min(Hedger.MIN_SAMPLES) private final int windowSize;
+
+        Hedging(
+                @DefaultValue("false") final boolean enabled,
+                @DefaultValue("95") final double percentile,
+                @DefaultValue("20ms") final Duration minDelay,
+                @DefaultValue("5") final double maxRate,
+                @DefaultValue("1000") final int windowSize) {
+            this.enabled = enabled;
+            this.percentile = percentile;
+            this.minDelay = minDelay;
+            this.maxRate = maxRate;
+            this.windowSize = windowSize;
+        }
+
+        boolean isEnabled() {
+            return enabled;
+        }
+
+        double getPercentile() {
+            return percentile;
+        }
+
+        Duration getMinDelay() {
+            return minDelay;
+        }
+
+        double getMaxRate() {
+            return maxRate;
+        }
+
+        int getWindowSize() {
+            return windowSize;
+        }
+    }
+
+    /** Settings for the adaptive limit on the number of calls in flight to the Datamuse api */
+    static class ConcurrencyLimit {
+
+        private final boolean enabled;
+
+        @Positive private final int initialLimit;
+
+        @Positive private final int minLimit;
+
+        @Positive private final int maxLimit;
+
+        @Positive @Max(1) private final double backoffRatio;
+
+        @NotNull private final Duration latencyThreshold;
+
+        ConcurrencyLimit(
+                @DefaultValue("true") final boolean enabled,
+                @DefaultValue("10") final int initialLimit,
+                @DefaultValue("1") final int minLimit,
+                @DefaultValue("50") final int maxLimit,
+                @DefaultValue("0.9") final double backoffRatio,
+                @DefaultValue("1s") final Duration latencyThreshold) {
+            this.enabled = enabled;
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.backoffRatio = backoffRatio;
+            this.latencyThreshold = latencyThreshold;
+        }
+
+        boolean isEnabled() {
+            return enabled;
+        }
+
+        int getInitialLimit() {
+            return initialLimit;
+        }
+
+        int getMinLimit() {
+            return minLimit;
+        }
+
+        int getMaxLimit() {
+            return maxLimit;
+        }
+
+        double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        Duration getLatencyThreshold() {
+            return latencyThreshold;
+        }
+    }
 }
@@ -0,0 +1,93 @@
+package uk.co.aaronvaz.carsapi.datamuse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates concurrent calls for the same key. The first caller for a key executes the call,
+ * any caller that arrives while that call is still in flight waits for and shares its result
+ * instead of making its own call
+ *
+ * @param <K> the type of the key calls are deduplicated by
+ * @param <V> the type of the call result
+ */
+class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Execute the call for the key unless a call for the same key is already in flight, in which
+     * case wait for that call's result
+     *
+     * @param key the key to deduplicate the call by
+     * @param call the call to execute
+     * @return the result of the call
+     */
+    V execute(final K key, final Supplier<V> call) {
+        final CompletableFuture<V> flight = new CompletableFuture<>();
+        final CompletableFuture<V> existingFlight = inFlight.putIfAbsent(key, flight);
+        if (existingFlight != null) {
+            return join(existingFlight);
+        }
+
+        try {
+            final V result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (final RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #execute(Object, Supplier)}, the call is started unless a call
+     * for the same key is already in flight, in which case the in flight call's result is shared
+     *
+     * @param key the key to deduplicate the call by
+     * @param call the call to start
+     * @return future that completes with the result of the call
+     */
+    CompletableFuture<V> executeAsync(final K key, final Supplier<CompletableFuture<V>> call) {
+        final CompletableFuture<V> flight = new CompletableFuture<>();
+        final CompletableFuture<V> existingFlight = inFlight.putIfAbsent(key, flight);
+        if (existingFlight != null) {
+            return existingFlight.copy();
+        }
+
+        try {
+            call.get()
+                    .whenComplete(
+                            (result, error) -> {
+                                inFlight.remove(key, flight);
+                                if (error != null) {
+                                    flight.completeExceptionally(error);
+                                } else {
+                                    flight.complete(result);
+                                }
+                            });
+        } catch (final RuntimeException | Error e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+        }
+
+        return flight.copy();
+    }
+
+    private static <V> V join(final CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package uk.co.aaronvaz.carsapi.datamuse;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import uk.co.aaronvaz.carsapi.datamuse.model.SoundsLikeResponseV1;
+
+@Component
+public class SoundsLikeCache {
+
+    static final String CACHE_NAME = "datamuse.sounds-like";
+
+    static final String NEGATIVE_CACHE_NAME = "datamuse.sounds-like.negative";
+
+    private final DatamuseRestApi datamuseRestApi;
+
+    private final Properties properties;
+
+    private final Ticker ticker;
+
+    private final AsyncCache<String, Collection<SoundsLikeResponseV1>> cache;
+
+    private final Cache<String, Backoff> negativeCache;
+
+    @Autowired
+    SoundsLikeCache(
+            final DatamuseRestApi datamuseRestApi,
+            final Properties properties,
+            final MeterRegistry meterRegistry) {
+        this(datamuseRestApi, properties, meterRegistry, Ticker.systemTicker());
+    }
+
+    SoundsLikeCache(
+            final DatamuseRestApi datamuseRestApi,
+            final Properties properties,
+            final MeterRegistry meterRegistry,
+            final Ticker ticker) {
+        this.datamuseRestApi = datamuseRestApi;
+        this.properties = properties;
+        this.ticker = ticker;
+        final Properties.Cache cacheProperties = properties.getCache();
+        this.cache =
+                Caffeine.newBuilder()
+                        .maximumSize(cacheProperties.getMaximumSize())
+                        .expireAfter(new NonEmptyExpiry(cacheProperties.getExpireAfterWrite()))
+                        // lookups complete on the caller or http client thread, no pool needed
+                        .executor(Runnable::run)
+                        .ticker(ticker)
+                        .recordStats()
+                        .buildAsync();
+
+        final Properties.NegativeCache negativeCacheProperties = properties.getNegativeCache();
+        this.negativeCache =
+                Caffeine.newBuilder()
+                        .maximumSize(negativeCacheProperties.getMaximumSize())
+                        // forget a word's failures once it has gone a full max ttl without a retry
+                        .expireAfterWrite(negativeCacheProperties.getMaxTtl().multipliedBy(2))
+                        .executor(Runnable::run)
+                        .ticker(ticker)
+                        .recordStats()
+                        .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), CACHE_NAME);
+        CaffeineCacheMetrics.monitor(meterRegistry, negativeCache, NEGATIVE_CACHE_NAME);
+    }
+
+    /**
+     * Cached version of {@link DatamuseRestApi#soundsLike(String)}. Only the first call for a word
+     * goes to the Datamuse api, subsequent calls are served from memory until the entry is evicted
+     * or expires
+     *
+     * <p>Failed or empty lookups are never cached with the found words, they are kept in a
+     * separate negative cache instead. An empty collection is returned without calling the api for
+     * {@code datamuse.api.negative-cache.ttl} after a word's lookup comes back empty, doubling with
+     * every consecutive empty lookup up to {@code datamuse.api.negative-cache.max-ttl}. Calls the
+     * api rejects without a request, while its circuit breaker is open or its concurrency limit is
+     * reached, return an empty collection but aren't negatively cached
+     *
+     * @param input the word to search homophones for
+     * @return SoundsLikeResponseV1 which contains the top words that are homophones of the input
+     */
+    public Collection<SoundsLikeResponseV1> soundsLike(final String input) {
+        if (isBackingOff(input)) {
+            return List.of();
+        }
+
+        return cache.get(
+                        input,
+                        word ->
+                                unlessRejected(
+                                        () -> record(word, datamuseRestApi.soundsLike(word))))
+                .join();
+    }
+
+    /**
+     * Cached version of {@link DatamuseRestApi#soundsLikeAsync(String)}, shares its entries with
+     * {@link #soundsLike(String)}
+     *
+     * @param input the word to search homophones for
+     * @return future that completes with the words that are homophones of the input
+     */
+    public CompletableFuture<Collection<SoundsLikeResponseV1>> soundsLikeAsync(final String input) {
+        if (isBackingOff(input)) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        return cache.get(
+                input,
+                (word, executor) ->
+                        datamuseRestApi
+                                .soundsLikeAsync(word)
+                                .thenApply(response -> record(word, response))
+                                .exceptionally(SoundsLikeCache::rejected));
+    }
+
+    /** Return an empty collection for a rejected call, the word mustn't back off for it */
+    private static Collection<SoundsLikeResponseV1> unlessRejected(
+            final Supplier<Collection<SoundsLikeResponseV1>> lookup) {
+        try {
+            return lookup.get();
+        } catch (final DatamuseRestApi.CallRejectedException e) {
+            return List.of();
+        }
+    }
+
+    /** Asynchronous version of {@link #unlessRejected(Supplier)} */
+    private static Collection<SoundsLikeResponseV1> rejected(final Throwable error) {
+        final Throwable e = error instanceof CompletionException ? error.getCause() : error;
+        if (e instanceof DatamuseRestApi.CallRejectedException) {
+            return List.of();
+        }
+
+        throw error instanceof CompletionException
+                ? (CompletionException) error
+                : new CompletionException(error);
+    }
+
+    private boolean isBackingOff(final String input) {
+        final Backoff backoff = negativeCache.getIfPresent(input);
+        return backoff != null && ticker.read() < backoff.retryAt;
+    }
+
+    private Collection<SoundsLikeResponseV1> record(
+            final String word, final Collection<SoundsLikeResponseV1> response) {
+        if (!response.isEmpty()) {
+            negativeCache.invalidate(word);
+            return response;
+        }
+
+        negativeCache
+                .asMap()
+                .compute(
+                        word,
+                        (key, previous) -> {
+                            final int failures = previous == null ? 1 : previous.failures + 1;
+                            return new Backoff(failures, ticker.read() + backoff(failures));
+                        });
+        return response;
+    }
+
+    private long backoff(final int failures) {
+        final Properties.NegativeCache negativeCacheProperties = properties.getNegativeCache();
+        final long maxTtl = negativeCacheProperties.getMaxTtl().toNanos();
+
+        long backoff = negativeCacheProperties.getTtl().toNanos();
+        for (int i = 1; i < failures && backoff < maxTtl; i++) {
+            backoff *= 2;
+        }
+
+        return Math.min(backoff, maxTtl);
+    }
+
+    /** Consecutive empty lookups of a word & when the api may be called for it again */
+    private static final class Backoff {
+        private final int failures;
+
+        private final long retryAt;
+
+        private Backoff(final int failures, final long retryAt) {
+            this.failures = failures;
+            this.retryAt = retryAt;
+        }
+    }
+
+    /** Keeps found words for the configured time, empty results are expired straight away */
+    private static final class NonEmptyExpiry
+            implements Expiry<String, Collection<SoundsLikeResponseV1>> {
+        private final long expireAfterWrite;
+
+        private NonEmptyExpiry(final Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(
+                final String key,
+                final Collection<SoundsLikeResponseV1> value,
+                final long currentTime) {
+            return value.isEmpty() ? 0 : expireAfterWrite;
+        }
+
+        @Override
+        public long expireAfterUpdate(
+                final String key,
+                final Collection<SoundsLikeResponseV1> value,
+                final long currentTime,
+                final long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(
+                final String key,
+                final Collection<SoundsLikeResponseV1> value,
+                final long currentTime,
+                final long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package uk.co.aaronvaz.carsapi.homophones;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+@Configuration("homophonesConfig")
+@EnableScheduling
+public class Config implements SchedulingConfigurer {
+
+    private final HomophoneService homophoneService;
+
+    private final Properties properties;
+
+    Config(final HomophoneService homophoneService, final Properties properties) {
+        this.homophoneService = homophoneService;
+        this.properties = properties;
+    }
+
+    @Override
+    public void configureTasks(final ScheduledTaskRegistrar taskRegistrar) {
+        final long refreshInterval = properties.getRefreshInterval().toMillis();
+        taskRegistrar.addFixedDelayTask(
+                new IntervalTask(homophoneService::refresh, refreshInterval, refreshInterval));
+    }
+}
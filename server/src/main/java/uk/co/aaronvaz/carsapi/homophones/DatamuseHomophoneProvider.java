@@ -0,0 +1,42 @@
+package uk.co.aaronvaz.carsapi.homophones;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import uk.co.aaronvaz.carsapi.datamuse.SoundsLikeCache;
+import uk.co.aaronvaz.carsapi.datamuse.model.SoundsLikeResponseV1;
+
+/** Looks homophones up with the Datamuse sounds like api, the default provider */
+@Component
+@ConditionalOnProperty(
+        name = "homophones.provider",
+        havingValue = "datamuse",
+        matchIfMissing = true)
+class DatamuseHomophoneProvider implements HomophoneProvider {
+
+    private final SoundsLikeCache soundsLikeCache;
+
+    DatamuseHomophoneProvider(final SoundsLikeCache soundsLikeCache) {
+        this.soundsLikeCache = soundsLikeCache;
+    }
+
+    @Override
+    public Collection<String> homophones(final String model) {
+        return toWords(soundsLikeCache.soundsLike(model));
+    }
+
+    @Override
+    public CompletableFuture<Collection<String>> homophonesAsync(final String model) {
+        return soundsLikeCache
+                .soundsLikeAsync(model)
+                .thenApply(DatamuseHomophoneProvider::toWords);
+    }
+
+    private static Collection<String> toWords(final Collection<SoundsLikeResponseV1> response) {
+        return response.stream()
+                .map(SoundsLikeResponseV1::getWord)
+                .collect(Collectors.toUnmodifiableList());
+    }
+}
@@ -0,0 +1,29 @@
+package uk.co.aaronvaz.carsapi.homophones;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Source of the words that sound like a car model. The implementation in use is selected with
+ * {@code homophones.provider}
+ */
+interface HomophoneProvider {
+
+    /**
+     * Find the words that sound like the model
+     *
+     * @param model the model to find homophones for
+     * @return the homophones of the model, best match first
+     */
+    Collection<String> homophones(String model);
+
+    /**
+     * Non-blocking version of {@link #homophones(String)}
+     *
+     * @param model the model to find homophones for
+     * @return future that completes with the homophones of the model, best match first
+     */
+    default CompletableFuture<Collection<String>> homophonesAsync(final String model) {
+        return CompletableFuture.completedFuture(homophones(model));
+    }
+}
@@ -0,0 +1,228 @@
+package uk.co.aaronvaz.carsapi.homophones;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import uk.co.aaronvaz.carsapi.model.db.ModelHomophones;
+
+@Service
+public class HomophoneService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(HomophoneService.class);
+
+    private final ModelHomophonesRepository repository;
+
+    private final HomophoneProvider homophoneProvider;
+
+    private final Properties properties;
+
+    private final ExecutorService executor;
+
+    private final ExecutorService dbExecutor;
+
+    HomophoneService(
+            final ModelHomophonesRepository repository,
+            final HomophoneProvider homophoneProvider,
+            final Properties properties) {
+        this.repository = repository;
+        this.homophoneProvider = homophoneProvider;
+        this.properties = properties;
+        this.executor =
+                Executors.newFixedThreadPool(
+                        properties.getMaxConcurrency(),
+                        new CustomizableThreadFactory("homophones-"));
+        // stores of looked up homophones get their own pool so that they never run on the
+        // provider's threads or queue behind blocking enrichment on the homophones pool
+        this.dbExecutor =
+                Executors.newFixedThreadPool(
+                        properties.getMaxConcurrency(),
+                        new CustomizableThreadFactory("homophones-db-"));
+    }
+
+    /**
+     * Look up the homophones of a car model. Stored homophones are read from the DB on the calling
+     * thread, only the homophones of a model that hasn't been enriched yet are looked up
+     * asynchronously with the non-blocking provider lookup and stored. The lookup carries on in
+     * the background and stores its result when it is still running at the deadline
+     *
+     * @param model the model to find homophones for
+     * @param deadline the instant after which the lookup is no longer waited for
+     * @return future that completes with the comma separated list of the top homophones, or with
+     *     null if they weren't found by the deadline
+     */
+    public CompletableFuture<String> homophonesAsync(final String model, final Instant deadline) {
+        return repository
+                .findById(model)
+                .map(ModelHomophones::getHomophones)
+                .map(CompletableFuture::completedFuture)
+                .orElseGet(() -> withDeadline(lookup(model), deadline));
+    }
+
+    /**
+     * Look up the homophones of several car models at once. Stored homophones are fetched from
+     * the DB in one query, each distinct model that hasn't been enriched yet is looked up
+     * concurrently without holding a thread per outstanding provider call. Lookups still running
+     * at the deadline are no longer waited for. They carry on in the background and store their
+     * result, so a later request finds the homophones in the DB
+     *
+     * @param models the models to find homophones for, may contain duplicates
+     * @param deadline the instant after which lookups are no longer waited for
+     * @return map of each distinct model to the comma separated list of its top homophones, models
+     *     whose lookup didn't finish by the deadline are left out
+     */
+    public Map<String, String> homophones(
+            final Collection<String> models, final Instant deadline) {
+        final Set<String> distinctModels = Set.copyOf(models);
+        if (distinctModels.isEmpty()) {
+            return Map.of();
+        }
+
+        final Map<String, String> homophones =
+                repository.findAllById(distinctModels).stream()
+                        .collect(
+                                Collectors.toMap(
+                                        ModelHomophones::getModel,
+                                        ModelHomophones::getHomophones));
+
+        final Map<String, CompletableFuture<String>> lookups =
+                distinctModels.stream()
+                        .filter(model -> !homophones.containsKey(model))
+                        .collect(
+                                Collectors.toMap(
+                                        Function.identity(),
+                                        model -> withDeadline(lookup(model), deadline)));
+        lookups.forEach(
+                (model, lookup) -> {
+                    final String found = lookup.join();
+                    if (found != null) {
+                        homophones.put(model, found);
+                    }
+                });
+
+        return Map.copyOf(homophones);
+    }
+
+    /**
+     * Enrich the homophones of a model in the background, unless they are already stored. Used
+     * when a car is written so that later reads can be served from the DB
+     *
+     * @param model the model to enrich
+     */
+    public void enrichAsync(final String model) {
+        CompletableFuture.runAsync(
+                        () -> {
+                            if (repository.findById(model).isEmpty()) {
+                                enrich(model);
+                            }
+                        },
+                        executor)
+                .exceptionally(
+                        e -> {
+                            LOGGER.warn("Error enriching homophones for model: {}", model, e);
+                            return null;
+                        });
+    }
+
+    /**
+     * Re-enrich the homophones of every model that is either missing from the DB or was last
+     * enriched longer than {@code homophones.max-age} ago. Runs every {@code
+     * homophones.refresh-interval}
+     */
+    void refresh() {
+        final Set<String> models = new HashSet<>(repository.findModelsWithoutHomophones());
+        models.addAll(
+                repository.findModelsEnrichedBefore(Instant.now().minus(properties.getMaxAge())));
+
+        if (models.isEmpty()) {
+            return;
+        }
+
+        LOGGER.info("Refreshing homophones for {} models", models.size());
+        enrichAll(models);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        dbExecutor.shutdownNow();
+    }
+
+    private Map<String, String> enrichAll(final Set<String> models) {
+        if (models.size() <= 1) {
+            return models.stream()
+                    .collect(Collectors.toMap(Function.identity(), this::enrich));
+        }
+
+        final Map<String, CompletableFuture<String>> lookups =
+                models.stream()
+                        .collect(
+                                Collectors.toMap(
+                                        Function.identity(),
+                                        model ->
+                                                CompletableFuture.supplyAsync(
+                                                        () -> enrich(model), executor)));
+
+        return lookups.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, lookup -> lookup.getValue().join()));
+    }
+
+    private String enrich(final String model) {
+        return store(model, toHomophones(homophoneProvider.homophones(model)));
+    }
+
+    /**
+     * Asynchronous version of {@link #enrich(String)}, the result is stored on the homophones DB
+     * pool so that no blocking DB call runs on the provider's threads
+     */
+    private CompletableFuture<String> lookup(final String model) {
+        return homophoneProvider
+                .homophonesAsync(model)
+                .thenApplyAsync(response -> store(model, toHomophones(response)), dbExecutor);
+    }
+
+    /**
+     * Complete a copy of the lookup with null at the deadline, completing the lookup itself early
+     * would skip the stages that store its result
+     */
+    private static CompletableFuture<String> withDeadline(
+            final CompletableFuture<String> lookup, final Instant deadline) {
+        final long timeout = Duration.between(Instant.now(), deadline).toMillis();
+        return lookup.copy().completeOnTimeout(null, timeout, TimeUnit.MILLISECONDS);
+    }
+
+    private String store(final String model, final String homophones) {
+        // nothing found may just mean the lookup failed, leave the model missing so that the
+        // refresh retries it rather than keeping the empty result until it's stale
+        if (homophones.isEmpty()) {
+            return homophones;
+        }
+
+        try {
+            repository.save(new ModelHomophones(model, homophones, Instant.now()));
+        } catch (final DataIntegrityViolationException e) {
+            LOGGER.debug("Homophones for model: {} stored concurrently, ignoring", model);
+        }
+
+        return homophones;
+    }
+
+    private String toHomophones(final Collection<String> words) {
+        return words.stream()
+                .limit(properties.getMaxResults())
+                .collect(Collectors.joining(", "));
+    }
+}
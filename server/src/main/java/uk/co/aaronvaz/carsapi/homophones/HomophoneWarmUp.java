@@ -0,0 +1,48 @@
+package uk.co.aaronvaz.carsapi.homophones;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Enriches the homophones of every model that is missing or stale in the DB on startup. Runs
+ * before the app reports ready, so that reads after a deploy are served from the DB rather than
+ * waiting on Datamuse
+ */
+@Component
+class HomophoneWarmUp implements ApplicationRunner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(HomophoneWarmUp.class);
+
+    private final HomophoneService homophoneService;
+
+    private final Properties properties;
+
+    HomophoneWarmUp(final HomophoneService homophoneService, final Properties properties) {
+        this.homophoneService = homophoneService;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(final ApplicationArguments args) throws InterruptedException {
+        if (!properties.getWarmUp().isEnabled()) {
+            return;
+        }
+
+        final Duration timeout = properties.getWarmUp().getTimeout();
+        try {
+            CompletableFuture.runAsync(homophoneService::refresh)
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException e) {
+            LOGGER.warn("Homophone warm up unfinished after {}, continuing in background", timeout);
+        } catch (final ExecutionException e) {
+            LOGGER.warn("Error warming up homophones", e.getCause());
+        }
+    }
+}
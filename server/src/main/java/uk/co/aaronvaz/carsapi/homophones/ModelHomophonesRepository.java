@@ -0,0 +1,59 @@
+package uk.co.aaronvaz.carsapi.homophones;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uk.co.aaronvaz.carsapi.model.db.ModelHomophones;
+
+@Repository
+interface ModelHomophonesRepository
+        extends org.springframework.data.repository.Repository<ModelHomophones, String> {
+
+    /**
+     * Save the {@link ModelHomophones} entity to the database
+     *
+     * @param modelHomophones the homophones to save
+     * @return the saved instance
+     */
+    ModelHomophones save(ModelHomophones modelHomophones);
+
+    /**
+     * Return the {@link ModelHomophones} entity stored for the given model
+     *
+     * @param model the model to look up the entity by
+     * @return Optional containing the matched entity or {@link Optional#empty()} if nothing was
+     *     found
+     */
+    Optional<ModelHomophones> findById(String model);
+
+    /**
+     * Return the {@link ModelHomophones} entities stored for the given models
+     *
+     * @param models the models to look up the entities by
+     * @return the matched entities, models with nothing stored are left out
+     */
+    List<ModelHomophones> findAllById(Iterable<String> models);
+
+    /**
+     * Find the models of all the stored cars that don't have any homophones stored yet
+     *
+     * @return the distinct models without a {@link ModelHomophones} entity
+     */
+    @Query(
+            "select distinct c.model from Car c"
+                    + " where c.model not in (select h.model from ModelHomophones h)")
+    Collection<String> findModelsWithoutHomophones();
+
+    /**
+     * Find the models whose homophones were last looked up before the given instant
+     *
+     * @param enrichedBefore the instant the homophones must have been looked up before
+     * @return the models with stale homophones
+     */
+    @Query("select h.model from ModelHomophones h where h.enrichedAt < :enrichedBefore")
+    Collection<String> findModelsEnrichedBefore(@Param("enrichedBefore") Instant enrichedBefore);
+}
@@ -0,0 +1,91 @@
+package uk.co.aaronvaz.carsapi.homophones;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.commons.codec.language.DoubleMetaphone;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Finds homophones in memory without any outbound calls. Every word in the {@code
+ * homophones.phonetic.word-list} is indexed by its Double Metaphone encodings on startup, a lookup
+ * is then a map get on the model's encodings
+ */
+@Component
+@ConditionalOnProperty(name = "homophones.provider", havingValue = "phonetic")
+class PhoneticHomophoneProvider implements HomophoneProvider {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PhoneticHomophoneProvider.class);
+
+    private final DoubleMetaphone encoder = new DoubleMetaphone();
+
+    private final Map<String, List<String>> wordsByCode;
+
+    PhoneticHomophoneProvider(final Properties properties) throws IOException {
+        this.wordsByCode = index(properties.getPhonetic().getWordList());
+    }
+
+    @Override
+    public Collection<String> homophones(final String model) {
+        final String word = model.toLowerCase(Locale.ROOT);
+        final String primaryCode = encoder.doubleMetaphone(word);
+        if (primaryCode == null || primaryCode.isEmpty()) {
+            return List.of();
+        }
+
+        // the model itself first, then the closest in length, primary encoding matches before
+        // alternate encoding matches
+        final Comparator<String> closestFirst =
+                Comparator.comparing((String match) -> !match.equals(word))
+                        .thenComparingInt(match -> Math.abs(match.length() - word.length()))
+                        .thenComparing(Comparator.naturalOrder());
+
+        return Stream.concat(
+                        matches(primaryCode).sorted(closestFirst),
+                        matches(encoder.doubleMetaphone(word, true)).sorted(closestFirst))
+                .distinct()
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private Stream<String> matches(final String code) {
+        return wordsByCode.getOrDefault(code, List.of()).stream();
+    }
+
+    private Map<String, List<String>> index(final Resource wordList) throws IOException {
+        final Map<String, List<String>> index = new HashMap<>();
+        try (final BufferedReader reader =
+                new BufferedReader(
+                        new InputStreamReader(wordList.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final String word = line.strip().toLowerCase(Locale.ROOT);
+                if (word.isEmpty()) {
+                    continue;
+                }
+
+                final String primaryCode = encoder.doubleMetaphone(word);
+                final String alternateCode = encoder.doubleMetaphone(word, true);
+                index.computeIfAbsent(primaryCode, code -> new ArrayList<>()).add(word);
+                if (!alternateCode.equals(primaryCode)) {
+                    index.computeIfAbsent(alternateCode, code -> new ArrayList<>()).add(word);
+                }
+            }
+        }
+
+        LOGGER.info("Indexed {} phonetic codes from {}", index.size(), wordList.getDescription());
+        return index;
+    }
+}
@@ -0,0 +1,105 @@
+package uk.co.aaronvaz.carsapi.homophones;
+
+import java.time.Duration;
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.core.io.Resource;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties("homophones")
+class Properties {
+
+    @Positive private final int maxConcurrency;
+
+    @Positive private final int maxResults;
+
+    @NotNull private final Duration maxAge;
+
+    @NotNull private final Duration refreshInterval;
+
+    @Valid private final Phonetic phonetic;
+
+    @Valid private final WarmUp warmUp;
+
+    @ConstructorBinding
+    Properties(
+            @DefaultValue("8") final int maxConcurrency,
+            @DefaultValue("5") final int maxResults,
+            @DefaultValue("7d") final Duration maxAge,
+            @DefaultValue("1h") final Duration refreshInterval,
+            @DefaultValue final Phonetic phonetic,
+            @DefaultValue final WarmUp warmUp) {
+        this.maxConcurrency = maxConcurrency;
+        this.maxResults = maxResults;
+        this.maxAge = maxAge;
+        this.refreshInterval = refreshInterval;
+        this.phonetic = phonetic;
+        this.warmUp = warmUp;
+    }
+
+    int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    int getMaxResults() {
+        return maxResults;
+    }
+
+    Duration getMaxAge() {
+        return maxAge;
+    }
+
+    Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    Phonetic getPhonetic() {
+        return phonetic;
+    }
+
+    WarmUp getWarmUp() {
+        return warmUp;
+    }
+
+    /** Settings for the in-memory phonetic homophone provider */
+    static class Phonetic {
+
+        @NotNull private final Resource wordList;
+
+        Phonetic(@DefaultValue("classpath:homophones/words.txt") final Resource wordList) {
+            this.wordList = wordList;
+        }
+
+        Resource getWordList() {
+            return wordList;
+        }
+    }
+
+    /** Settings for enriching the homophones of every stored model on startup */
+    static class WarmUp {
+
+        private final boolean enabled;
+
+        @NotNull private final Duration timeout;
+
+        WarmUp(
+                @DefaultValue("true") final boolean enabled,
+                @DefaultValue("2m") final Duration timeout) {
+            this.enabled = enabled;
+            this.timeout = timeout;
+        }
+
+        boolean isEnabled() {
+            return enabled;
+        }
+
+        Duration getTimeout() {
+            return timeout;
+        }
+    }
+}
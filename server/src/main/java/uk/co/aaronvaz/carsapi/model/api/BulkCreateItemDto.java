@@ -0,0 +1,61 @@
+package uk.co.aaronvaz.carsapi.model.api;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.net.URI;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/** Outcome of one car in a bulk create request, in the same position as the car in the request */
+public class BulkCreateItemDto {
+    private final int status;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final UUID id;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final URI location;
+
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private final List<String> errors;
+
+    public BulkCreateItemDto(
+            final int status, final UUID id, final URI location, final List<String> errors) {
+        this.status = status;
+        this.id = id;
+        this.location = location;
+        this.errors = errors;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public URI getLocation() {
+        return location;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final BulkCreateItemDto that = (BulkCreateItemDto) o;
+        return status == that.status
+                && Objects.equals(id, that.id)
+                && Objects.equals(location, that.location)
+                && Objects.equals(errors, that.errors);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(status, id, location, errors);
+    }
+}
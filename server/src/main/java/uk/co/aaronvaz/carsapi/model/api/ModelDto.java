@@ -1,15 +1,25 @@
 package uk.co.aaronvaz.carsapi.model.api;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.Objects;
 
 public class ModelDto {
     private final String name;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private final String homophones;
 
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private final boolean homophonesPartial;
+
     public ModelDto(final String name, final String homophones) {
+        this(name, homophones, false);
+    }
+
+    public ModelDto(final String name, final String homophones, final boolean homophonesPartial) {
         this.name = name;
         this.homophones = homophones;
+        this.homophonesPartial = homophonesPartial;
     }
 
     public String getName() {
@@ -20,17 +30,23 @@ public class ModelDto {
         return homophones;
     }
 
+    /** Whether the homophones were left out because they weren't found within the request time */
+    public boolean isHomophonesPartial() {
+        return homophonesPartial;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         final ModelDto modelDto = (ModelDto) o;
-        return Objects.equals(name, modelDto.name)
+        return homophonesPartial == modelDto.homophonesPartial
+                && Objects.equals(name, modelDto.name)
                 && Objects.equals(homophones, modelDto.homophones);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, homophones);
+        return Objects.hash(name, homophones, homophonesPartial);
     }
 }
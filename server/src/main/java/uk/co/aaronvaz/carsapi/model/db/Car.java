@@ -1,11 +1,20 @@
 package uk.co.aaronvaz.carsapi.model.db;
 
+import java.util.Locale;
 import java.util.Objects;
 import java.util.UUID;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
 
 @Entity
+@Table(
+        indexes =
+                @Index(
+                        name = "car_normalized_make_model_id_idx",
+                        columnList = "normalized_make, normalized_model, id"))
 public class Car {
     @Id private UUID id;
 
@@ -13,6 +22,14 @@ public class Car {
 
     private String model;
 
+    /** Lower case copy of the make that lookups match on, kept in sync with the make */
+    @Column(name = "normalized_make")
+    private String normalizedMake;
+
+    /** Lower case copy of the model that lookups match on, kept in sync with the model */
+    @Column(name = "normalized_model")
+    private String normalizedModel;
+
     private String colour;
 
     private int year;
@@ -28,6 +45,8 @@ public class Car {
         this.id = id;
         this.make = make;
         this.model = model;
+        this.normalizedMake = normalize(make);
+        this.normalizedModel = normalize(model);
         this.colour = colour;
         this.year = year;
     }
@@ -46,6 +65,7 @@ public class Car {
 
     public void setMake(final String make) {
         this.make = make;
+        this.normalizedMake = normalize(make);
     }
 
     public String getModel() {
@@ -54,6 +74,7 @@ public class Car {
 
     public void setModel(final String model) {
         this.model = model;
+        this.normalizedModel = normalize(model);
     }
 
     public String getColour() {
@@ -72,13 +93,23 @@ public class Car {
         this.year = year;
     }
 
+    /**
+     * Normalize a make or model the way it is stored for lookups, so that matching ignores case
+     *
+     * @param value the make or model to normalize
+     * @return the lower case value or null if the value is null
+     */
+    public static String normalize(final String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         final Car car = (Car) o;
-        return id == car.id
-                && year == car.year
+        return year == car.year
+                && Objects.equals(id, car.id)
                 && Objects.equals(make, car.make)
                 && Objects.equals(model, car.model)
                 && Objects.equals(colour, car.colour);
@@ -0,0 +1,62 @@
+package uk.co.aaronvaz.carsapi.model.db;
+
+import java.time.Instant;
+import java.util.Objects;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+@Entity
+public class ModelHomophones {
+    @Id private String model;
+
+    private String homophones;
+
+    private Instant enrichedAt;
+
+    public ModelHomophones() {}
+
+    public ModelHomophones(final String model, final String homophones, final Instant enrichedAt) {
+        this.model = model;
+        this.homophones = homophones;
+        this.enrichedAt = enrichedAt;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(final String model) {
+        this.model = model;
+    }
+
+    public String getHomophones() {
+        return homophones;
+    }
+
+    public void setHomophones(final String homophones) {
+        this.homophones = homophones;
+    }
+
+    public Instant getEnrichedAt() {
+        return enrichedAt;
+    }
+
+    public void setEnrichedAt(final Instant enrichedAt) {
+        this.enrichedAt = enrichedAt;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final ModelHomophones that = (ModelHomophones) o;
+        return Objects.equals(model, that.model)
+                && Objects.equals(homophones, that.homophones)
+                && Objects.equals(enrichedAt, that.enrichedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(model, homophones, enrichedAt);
+    }
+}
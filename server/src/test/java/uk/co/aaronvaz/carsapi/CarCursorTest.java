@@ -0,0 +1,50 @@
+package uk.co.aaronvaz.carsapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import uk.co.aaronvaz.carsapi.model.db.Car;
+
+class CarCursorTest {
+
+    @Test
+    void valueOf_StringFromToString_SameCursor() {
+        // given
+        final CarCursor cursor = new CarCursor("range rover: sport", UUID.randomUUID());
+
+        // when
+        final CarCursor parsed = CarCursor.valueOf(cursor.toString());
+
+        // then
+        assertEquals(cursor, parsed);
+        assertTrue(cursor.toString().matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void after_Car_CursorHoldsNormalizedModelAndId() {
+        // given
+        final Car car = new Car(UUID.randomUUID(), "Ford", "Focus", "Blue", 2010);
+
+        // when
+        final CarCursor cursor = CarCursor.after(car);
+
+        // then
+        assertEquals(new CarCursor("focus", car.getId()), cursor);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not base64!", "Zm9jdXM", "bm90LWEtdXVpZDpmb2N1cw"})
+    void valueOf_NotACursor_ExceptionThrown(final String value) {
+        // when
+        final Executable valueOf = () -> CarCursor.valueOf(value);
+
+        // then
+        assertThrows(IllegalArgumentException.class, valueOf);
+    }
+}
@@ -1,18 +1,33 @@
 package uk.co.aaronvaz.carsapi;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
 import uk.co.aaronvaz.carsapi.model.db.Car;
 
 @DataJpaTest
@@ -22,6 +37,8 @@ class CarRepositoryTest {
 
     @Autowired private EntityManager entityManager;
 
+    @Autowired private GeneratedSql generatedSql;
+
     @Test
     void save_HappyPath_EntitySaved() {
         // given
@@ -37,6 +54,59 @@ class CarRepositoryTest {
         assertEquals(car, dbCar);
     }
 
+    @Test
+    void insertAll_HappyPath_EntitiesInsertedAndDetached() {
+        // given
+        final List<Car> cars =
+                List.of(
+                        new Car(new UUID(0, 1), "Ford", "Focus", "Blue", 2010),
+                        new Car(new UUID(0, 2), "Ford", "Kuga", "Black", 2020));
+
+        // when
+        carRepository.insertAll(cars);
+
+        // then
+        assertTrue(cars.stream().noneMatch(entityManager::contains));
+
+        final List<Car> dbCars = carRepository.findByMake("Ford", 10);
+        assertEquals(ids(cars), ids(dbCars));
+        assertEquals(
+                List.of("Blue", "Black"),
+                dbCars.stream().map(Car::getColour).collect(Collectors.toList()));
+    }
+
+    @Test
+    void update_CarStored_EveryColumnUpdated() {
+        // given
+        final UUID id = new UUID(0, 1);
+        entityManager.persist(new Car(id, "Ford", "Focus", "Blue", 2010));
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        final int updated = carRepository.update(new Car(id, "Seat", "Leon", "Red", 2012));
+
+        // then
+        assertEquals(1, updated);
+
+        final Car dbCar = entityManager.find(Car.class, id);
+        assertEquals("Seat", dbCar.getMake());
+        assertEquals("Leon", dbCar.getModel());
+        assertEquals("Red", dbCar.getColour());
+        assertEquals(2012, dbCar.getYear());
+        assertEquals(List.of(id), ids(carRepository.findByMakeAAndModel("SEAT", "leon", 10)));
+    }
+
+    @Test
+    void update_NoCarStoredWithId_NothingUpdated() {
+        // when
+        final int updated =
+                carRepository.update(new Car(UUID.randomUUID(), "Seat", "Leon", "Red", 2012));
+
+        // then
+        assertEquals(0, updated);
+    }
+
     @Test
     void findById_HappyPath_EntityReturned() {
         // given
@@ -51,6 +121,23 @@ class CarRepositoryTest {
         assertEquals(car, storedCar.get());
     }
 
+    @Test
+    void findById_EntityReadFromDb_EqualToStoredCar() {
+        // given
+        final Car car = new Car(UUID.randomUUID(), "Audi", "R8", "Silver", 2010);
+        entityManager.persist(car);
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        final Optional<Car> storedCar = carRepository.findById(car.getId());
+
+        // then the read car has its own id instance, equality doesn't depend on it
+        assertTrue(storedCar.isPresent());
+        assertNotSame(car.getId(), storedCar.get().getId());
+        assertEquals(car, storedCar.get());
+    }
+
     @Test
     void findById_NoEntityStoredWithId_EmptyOptionalReturned() {
         // given
@@ -63,20 +150,134 @@ class CarRepositoryTest {
         assertTrue(storedCar.isEmpty());
     }
 
+    @Test
+    void findAllById_SomeIdsStored_StoredEntitiesReturned() {
+        // given
+        final Car ibiza = new Car(UUID.randomUUID(), "Seat", "Ibiza", "Black", 2020);
+        final Car leon = new Car(UUID.randomUUID(), "Seat", "Leon", "Black", 2020);
+        entityManager.persist(ibiza);
+        entityManager.persist(leon);
+
+        // when
+        final Collection<Car> storedCars =
+                carRepository.findAllById(Set.of(leon.getId(), UUID.randomUUID()));
+
+        // then
+        assertIterableEquals(List.of(leon), storedCars);
+    }
+
     @Test
     void deleteById_HappyPath_EntityDeleted() {
         // given
         final Car car = new Car(UUID.randomUUID(), "Seat", "Ibiza", "Black", 2020);
         entityManager.persist(car);
+        entityManager.flush();
+        entityManager.clear();
 
         // when
-        carRepository.deleteById(car.getId());
+        final int deleted = carRepository.deleteById(car.getId());
 
         // then
+        assertEquals(1, deleted);
+
         final Car dbCar = entityManager.find(Car.class, car.getId());
         assertNull(dbCar);
     }
 
+    @Test
+    void deleteById_NoEntityStoredWithId_NothingDeleted() {
+        // when
+        final int deleted = carRepository.deleteById(UUID.randomUUID());
+
+        // then
+        assertEquals(0, deleted);
+    }
+
+    @Test
+    void updateNonNull_SomeColumnsSupplied_OnlyThoseUpdated() {
+        // given
+        final UUID id = new UUID(0, 1);
+        entityManager.persist(new Car(id, "Seat", "Ibiza", "Black", 2020));
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        final int updated = carRepository.updateNonNull(id, null, "Leon", null, 2021);
+
+        // then
+        assertEquals(1, updated);
+
+        final Car dbCar = entityManager.find(Car.class, id);
+        assertEquals("Seat", dbCar.getMake());
+        assertEquals("Leon", dbCar.getModel());
+        assertEquals("Black", dbCar.getColour());
+        assertEquals(2021, dbCar.getYear());
+        assertEquals(List.of(id), ids(carRepository.findByMakeAAndModel("seat", "LEON", 10)));
+    }
+
+    @Test
+    void updateNonNull_SuppliedColumnsUnchanged_CarFoundAndNothingWritten() {
+        // given
+        final UUID id = new UUID(0, 1);
+        entityManager.persist(new Car(id, "Seat", "Ibiza", "Black", 2020));
+        entityManager.flush();
+        // clear a column the update would also write, to see whether the row is written
+        entityManager.createNativeQuery("update car set normalized_make = null").executeUpdate();
+        entityManager.clear();
+
+        // when
+        final int updated = carRepository.updateNonNull(id, "Seat", "Ibiza", "Black", 2020);
+
+        // then
+        assertEquals(1, updated);
+        assertNull(
+                entityManager
+                        .createNativeQuery("select normalized_make from car")
+                        .getSingleResult());
+    }
+
+    @Test
+    void updateNonNull_OneSuppliedColumnChanged_CarWritten() {
+        // given
+        final UUID id = new UUID(0, 1);
+        entityManager.persist(new Car(id, "Seat", "Ibiza", "Black", 2020));
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        final int updated = carRepository.updateNonNull(id, "Seat", "Ibiza", "White", null);
+
+        // then
+        assertEquals(1, updated);
+        assertEquals("White", entityManager.find(Car.class, id).getColour());
+    }
+
+    @Test
+    void updateNonNull_NoColumnsSupplied_CarFoundAndNothingUpdated() {
+        // given
+        final UUID id = new UUID(0, 1);
+        entityManager.persist(new Car(id, "Seat", "Ibiza", "Black", 2020));
+        entityManager.flush();
+        entityManager.clear();
+
+        // when
+        final int updated = carRepository.updateNonNull(id, null, null, null, null);
+
+        // then
+        assertEquals(1, updated);
+        assertEquals("Ibiza", entityManager.find(Car.class, id).getModel());
+    }
+
+    @Test
+    void updateNonNull_NoEntityStoredWithId_NothingUpdated() {
+        // when
+        final int updated =
+                carRepository.updateNonNull(UUID.randomUUID(), "Seat", null, null, null);
+
+        // then
+        assertEquals(0, updated);
+    }
+
     @Test
     void findByMake_HappyPath_EntityFound() {
         // given
@@ -86,7 +287,7 @@ class CarRepositoryTest {
         entityManager.persist(ford);
 
         // when
-        final Collection<Car> carsByMake = carRepository.findByMake("Ford");
+        final Collection<Car> carsByMake = carRepository.findByMake("Ford", 10);
 
         // then
         assertIterableEquals(List.of(ford), carsByMake);
@@ -101,9 +302,303 @@ class CarRepositoryTest {
         entityManager.persist(leon);
 
         // when
-        final Collection<Car> carsByMake = carRepository.findByMakeAAndModel("Seat", "Leon");
+        final Collection<Car> carsByMake = carRepository.findByMakeAAndModel("Seat", "Leon", 10);
 
         // then
         assertIterableEquals(List.of(leon), carsByMake);
     }
+
+    @Test
+    void findByMake_DifferentCase_EntityFound() {
+        // given
+        final Car ford = new Car(UUID.randomUUID(), "Ford", "Fiesta", "Black", 2020);
+        entityManager.persist(ford);
+
+        // when
+        final Collection<Car> carsByMake = carRepository.findByMake("FORD", 10);
+
+        // then
+        assertIterableEquals(List.of(ford), carsByMake);
+    }
+
+    @Test
+    void findByMakeAAndModel_DifferentCase_EntityFound() {
+        // given
+        final Car leon = new Car(UUID.randomUUID(), "Seat", "Leon", "Black", 2020);
+        entityManager.persist(leon);
+
+        // when
+        final Collection<Car> carsByMake = carRepository.findByMakeAAndModel("seat", "LEON", 10);
+
+        // then
+        assertIterableEquals(List.of(leon), carsByMake);
+    }
+
+    @Test
+    void findByMake_MoreCarsThanLimit_FirstCarsByModelThenIdReturned() {
+        // given
+        final List<Car> cars = persistFords();
+
+        // when
+        final Collection<Car> carsByMake = carRepository.findByMake("Ford", 2);
+
+        // then
+        assertIterableEquals(cars.subList(0, 2), carsByMake);
+    }
+
+    @Test
+    void findByMakeAfter_EveryPage_EachCarReturnedOnceInOrder() {
+        // given
+        final List<Car> cars = persistFords();
+
+        // when
+        final List<Car> pages = new ArrayList<>(carRepository.findByMake("Ford", 2));
+        List<Car> page = pages;
+        while (page.size() == 2) {
+            final Car last = page.get(1);
+            page =
+                    carRepository.findByMakeAfter(
+                            "Ford", Car.normalize(last.getModel()), last.getId(), 2);
+            pages.addAll(page);
+        }
+
+        // then
+        assertIterableEquals(cars, pages);
+    }
+
+    @Test
+    void findByMakeAAndModelAfter_CursorSupplied_CarsAfterCursorReturned() {
+        // given
+        final List<Car> focuses =
+                persistFords().stream()
+                        .filter(car -> car.getModel().equals("Focus"))
+                        .collect(Collectors.toList());
+
+        // when
+        final Collection<Car> carsByMake =
+                carRepository.findByMakeAAndModelAfter("ford", "focus", focuses.get(0).getId(), 10);
+
+        // then
+        assertIterableEquals(focuses.subList(1, focuses.size()), carsByMake);
+    }
+
+    @Test
+    void streamByMake_HappyPath_DetachedCarsStreamedByModelThenId() {
+        // given
+        final List<Car> cars = persistFords();
+
+        // when
+        final List<Car> streamed;
+        try (final Stream<Car> carsByMake = carRepository.streamByMake("FORD")) {
+            streamed = carsByMake.collect(Collectors.toList());
+        }
+
+        // then
+        assertEquals(ids(cars), ids(streamed));
+        assertTrue(streamed.stream().noneMatch(entityManager::contains));
+    }
+
+    @Test
+    void streamByMakeAndModel_HappyPath_DetachedCarsStreamedById() {
+        // given
+        final List<Car> focuses =
+                persistFords().stream()
+                        .filter(car -> car.getModel().equalsIgnoreCase("Focus"))
+                        .collect(Collectors.toList());
+
+        // when
+        final List<Car> streamed;
+        try (final Stream<Car> carsByMake = carRepository.streamByMakeAndModel("ford", "FOCUS")) {
+            streamed = carsByMake.collect(Collectors.toList());
+        }
+
+        // then
+        assertEquals(ids(focuses), ids(streamed));
+        assertTrue(streamed.stream().noneMatch(entityManager::contains));
+    }
+
+    @Test
+    void streamIdsAndModels_HappyPath_IdAndModelOfEveryCarStreamed() {
+        // given
+        final List<Car> cars = persistFords();
+
+        // when
+        final Set<String> streamed;
+        try (final Stream<CarRepository.IdAndModel> idsAndModels =
+                carRepository.streamIdsAndModels()) {
+            streamed =
+                    idsAndModels
+                            .map(car -> car.getId() + " " + car.getModel())
+                            .collect(Collectors.toSet());
+        }
+
+        // then
+        assertEquals(
+                cars.stream()
+                        .map(car -> car.getId() + " " + car.getModel())
+                        .collect(Collectors.toSet()),
+                streamed);
+    }
+
+    @Test
+    void findByMake_QueryPlan_MakeModelIndexUsed() {
+        // when
+        final String plan = explain(() -> carRepository.findByMake("Ford", 10), "ford", 10);
+
+        // then
+        assertTrue(plan.contains("CAR_NORMALIZED_MAKE_MODEL_ID_IDX"), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    void findByMakeAndModel_QueryPlan_MakeModelIndexUsed() {
+        // when
+        final String plan =
+                explain(
+                        () -> carRepository.findByMakeAAndModel("Seat", "Leon", 10),
+                        "seat",
+                        "leon",
+                        10);
+
+        // then
+        assertTrue(plan.contains("CAR_NORMALIZED_MAKE_MODEL_ID_IDX"), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    void findByMakeAfter_QueryPlan_MakeModelIndexUsed() {
+        // given
+        final UUID afterId = new UUID(0, 1);
+
+        // when
+        final String plan =
+                explain(
+                        () -> carRepository.findByMakeAfter("Ford", "focus", afterId, 10),
+                        "ford",
+                        "focus",
+                        "focus",
+                        afterId,
+                        10);
+
+        // then
+        assertTrue(plan.contains("CAR_NORMALIZED_MAKE_MODEL_ID_IDX"), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    void findByMakeAndModelAfter_QueryPlan_MakeModelIndexUsed() {
+        // given
+        final UUID afterId = new UUID(0, 1);
+
+        // when
+        final String plan =
+                explain(
+                        () -> carRepository.findByMakeAAndModelAfter("Ford", "Focus", afterId, 10),
+                        "ford",
+                        "focus",
+                        afterId,
+                        10);
+
+        // then
+        assertTrue(plan.contains("CAR_NORMALIZED_MAKE_MODEL_ID_IDX"), plan);
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    void normalizeLegacyCars_NormalizedColumnsMissing_ColumnsFilledIn() {
+        // given
+        final Car ibiza = new Car(UUID.randomUUID(), "Seat", "Ibiza", "Black", 2020);
+        entityManager.persist(ibiza);
+        entityManager.flush();
+        entityManager
+                .createNativeQuery("update car set normalized_make = null, normalized_model = null")
+                .executeUpdate();
+
+        // when
+        final int updated = carRepository.normalizeLegacyCars();
+
+        // then
+        assertEquals(1, updated);
+        assertIterableEquals(
+                List.of(ibiza), carRepository.findByMakeAAndModel("Seat", "Ibiza", 10));
+    }
+
+    private static List<UUID> ids(final List<Car> cars) {
+        return cars.stream().map(Car::getId).collect(Collectors.toList());
+    }
+
+    /**
+     * Persist five Fords, returned in model then id order. Ids are small so that they sort the same
+     * in Java & in the DB
+     */
+    private List<Car> persistFords() {
+        final List<String> models = List.of("Focus", "Kuga", "Fiesta", "Focus", "focus");
+        final List<Car> cars =
+                IntStream.range(0, models.size())
+                        .mapToObj(
+                                i ->
+                                        new Car(
+                                                new UUID(0, 5 - i),
+                                                "Ford",
+                                                models.get(i),
+                                                "Blue",
+                                                2020))
+                        .collect(Collectors.toList());
+        cars.forEach(entityManager::persist);
+
+        cars.sort(
+                Comparator.comparing((Car car) -> Car.normalize(car.getModel()))
+                        .thenComparing(Car::getId));
+        return cars;
+    }
+
+    /**
+     * Run H2's EXPLAIN for the last SQL Hibernate generated for the query, binding the params in
+     * the order they appear in the SQL. The plan names the index used or a tableScan
+     */
+    private String explain(final Runnable query, final Object... params) {
+        generatedSql.clear();
+        query.run();
+
+        final Query explain = entityManager.createNativeQuery("explain " + generatedSql.last());
+        for (int i = 0; i < params.length; i++) {
+            explain.setParameter(i + 1, params[i]);
+        }
+        return explain.getSingleResult().toString();
+    }
+
+    /** Records the SQL Hibernate generates, so that tests check the plan of the real queries */
+    static class GeneratedSql implements StatementInspector {
+
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(final String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        void clear() {
+            statements.clear();
+        }
+
+        String last() {
+            return statements.get(statements.size() - 1);
+        }
+    }
+
+    @TestConfiguration
+    static class GeneratedSqlConfiguration {
+
+        @Bean
+        GeneratedSql generatedSql() {
+            return new GeneratedSql();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspector(final GeneratedSql generatedSql) {
+            return properties ->
+                    properties.put(AvailableSettings.STATEMENT_INSPECTOR, generatedSql);
+        }
+    }
 }
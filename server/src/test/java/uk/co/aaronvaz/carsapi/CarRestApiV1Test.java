@@ -1,28 +1,43 @@
 package uk.co.aaronvaz.carsapi;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.BDDMockito.willReturn;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -32,6 +47,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import uk.co.aaronvaz.carsapi.model.api.CarDto;
+import uk.co.aaronvaz.carsapi.model.api.CreateOrUpdateCarRequestV1;
 import uk.co.aaronvaz.carsapi.model.api.ModelDto;
 import uk.co.aaronvaz.carsapi.model.api.PartialUpdateCarRequestV1;
 
@@ -47,9 +63,8 @@ class CarRestApiV1Test {
     @Test
     void add_HappyPath_201Created() throws Exception {
         // given
-        final CarDto carDto =
-                new CarDto(UUID.randomUUID(), "Ford", new ModelDto("Focus", ""), "Blue", 2010);
-        willReturn(carDto).given(mockCarService).addCar(any());
+        final UUID id = UUID.randomUUID();
+        willReturn(id).given(mockCarService).addCar(any());
 
         final String request =
                 "{\n"
@@ -71,7 +86,7 @@ class CarRestApiV1Test {
         final String locationHeader = mvcResult.getResponse().getHeader(HttpHeaders.LOCATION);
 
         assertNotNull(locationHeader);
-        assertTrue(locationHeader.endsWith("/api/v1/cars/" + carDto.getId()));
+        assertTrue(locationHeader.endsWith("/api/v1/cars/" + id));
 
         verify(mockCarService).addCar(any());
     }
@@ -118,6 +133,169 @@ class CarRestApiV1Test {
         actions.andExpect(status().isInternalServerError());
     }
 
+    @Test
+    void addAll_Ndjson_OutcomeOfEachCar() throws Exception {
+        // given
+        final List<CreateOrUpdateCarRequestV1> requests =
+                List.of(
+                        new CreateOrUpdateCarRequestV1("Ford", "Focus", "Blue", 2010),
+                        new CreateOrUpdateCarRequestV1("Ford", "", "Red", 2008),
+                        new CreateOrUpdateCarRequestV1("Ford", "Kuga", "Black", 2020));
+
+        final UUID id = UUID.randomUUID();
+        willReturn(
+                        List.of(
+                                BulkAddResult.created(id),
+                                BulkAddResult.invalid(List.of("model must not be blank")),
+                                BulkAddResult.failed()))
+                .given(mockCarService)
+                .addCars(requests, 500);
+
+        final StringBuilder request = new StringBuilder();
+        for (final CreateOrUpdateCarRequestV1 car : requests) {
+            request.append(objectMapper.writeValueAsString(car)).append('\n');
+        }
+
+        // when
+        final MvcResult result =
+                mockMvc.perform(
+                                post("/api/v1/cars/_bulk")
+                                        .contentType(MediaType.APPLICATION_NDJSON)
+                                        .content(request.toString()))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[0].id").value(id.toString()))
+                .andExpect(jsonPath("$[0].location").value("http://localhost/api/v1/cars/" + id))
+                .andExpect(jsonPath("$[1].status").value(400))
+                .andExpect(jsonPath("$[1].errors[0]").value("model must not be blank"))
+                .andExpect(jsonPath("$[1].id").doesNotExist())
+                .andExpect(jsonPath("$[2].status").value(500))
+                .andExpect(jsonPath("$[2].errors").doesNotExist());
+    }
+
+    @Test
+    void addAll_JsonArray_CarsAdded() throws Exception {
+        // given
+        final UUID id = UUID.randomUUID();
+        willReturn(List.of(BulkAddResult.created(id)))
+                .given(mockCarService)
+                .addCars(
+                        List.of(new CreateOrUpdateCarRequestV1("Ford", "Focus", "Blue", 2010)),
+                        500);
+
+        final String request =
+                "[{\"make\":\"Ford\",\"model\":\"Focus\","
+                        + "\"colour\":\"Blue\",\"year\":2010}]";
+
+        // when
+        final MvcResult result =
+                mockMvc.perform(
+                                post("/api/v1/cars/_bulk")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(request))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[0].id").value(id.toString()));
+    }
+
+    @Test
+    void addAll_WrongTypeOfField_CarRejectedAndOthersAdded() throws Exception {
+        // given
+        final UUID focusId = UUID.randomUUID();
+        final UUID kugaId = UUID.randomUUID();
+        willReturn(List.of(BulkAddResult.created(focusId), BulkAddResult.created(kugaId)))
+                .given(mockCarService)
+                .addCars(
+                        List.of(
+                                new CreateOrUpdateCarRequestV1("Ford", "Focus", "Blue", 2010),
+                                new CreateOrUpdateCarRequestV1("Ford", "Kuga", "Black", 2020)),
+                        500);
+
+        final String request =
+                "{\"make\":\"Ford\",\"model\":\"Focus\",\"colour\":\"Blue\",\"year\":2010}\n"
+                        + "{\"make\":\"Ford\",\"model\":\"Puma\",\"colour\":\"Red\","
+                        + "\"year\":\"new\"}\n"
+                        + "{\"make\":\"Ford\",\"model\":\"Kuga\",\"colour\":\"Black\","
+                        + "\"year\":2020}\n";
+
+        // when
+        final MvcResult result =
+                mockMvc.perform(
+                                post("/api/v1/cars/_bulk")
+                                        .contentType(MediaType.APPLICATION_NDJSON)
+                                        .content(request))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].id").value(focusId.toString()))
+                .andExpect(jsonPath("$[1].status").value(400))
+                .andExpect(jsonPath("$[1].errors[0]").value("year has an invalid value"))
+                .andExpect(jsonPath("$[2].id").value(kugaId.toString()));
+    }
+
+    @Test
+    void addAll_BodyStopsBeingJson_CarsBeforeAddedAndBrokenCarRejected() throws Exception {
+        // given
+        final UUID id = UUID.randomUUID();
+        willReturn(List.of(BulkAddResult.created(id)))
+                .given(mockCarService)
+                .addCars(
+                        List.of(new CreateOrUpdateCarRequestV1("Ford", "Focus", "Blue", 2010)),
+                        500);
+
+        final String request =
+                "{\"make\":\"Ford\",\"model\":\"Focus\",\"colour\":\"Blue\",\"year\":2010}\n"
+                        + "{\"make\":";
+
+        // when
+        final MvcResult result =
+                mockMvc.perform(
+                                post("/api/v1/cars/_bulk")
+                                        .contentType(MediaType.APPLICATION_NDJSON)
+                                        .content(request))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(id.toString()))
+                .andExpect(jsonPath("$[1].status").value(400))
+                .andExpect(jsonPath("$[1].errors[0]").value("is not valid json"));
+    }
+
+    @Test
+    void addAll_NotJson_400BadRequest() throws Exception {
+        // when
+        final ResultActions actions =
+                mockMvc.perform(
+                        post("/api/v1/cars/_bulk")
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .content("make=Ford"));
+
+        // then
+        actions.andExpect(status().isBadRequest());
+        verify(mockCarService, never()).addCars(any(), anyInt());
+    }
+
     @Test
     void update_HappyPath_204NoContent() throws Exception {
         // given
@@ -328,7 +506,9 @@ class CarRestApiV1Test {
         // given
         final CarDto carDto =
                 new CarDto(UUID.randomUUID(), "Nissan", new ModelDto("Micra", ""), "Blue", 2012);
-        willReturn(Optional.of(carDto)).given(mockCarService).retrieveCar(carDto.getId());
+        willReturn(Optional.of(carDto))
+                .given(mockCarService)
+                .retrieveCar(eq(carDto.getId()), eq(true), any());
 
         // when
         final ResultActions resultActions =
@@ -343,11 +523,49 @@ class CarRestApiV1Test {
                 .andExpect(content().json(objectMapper.writeValueAsString(carDto)));
     }
 
+    @Test
+    void retrieve_HomophonesExcluded_HomophonesOmitted() throws Exception {
+        // given
+        final CarDto carDto =
+                new CarDto(UUID.randomUUID(), "Nissan", new ModelDto("Micra", null), "Blue", 2012);
+        willReturn(Optional.of(carDto))
+                .given(mockCarService)
+                .retrieveCar(eq(carDto.getId()), eq(false), any());
+
+        // when
+        final ResultActions resultActions =
+                mockMvc.perform(
+                        get("/api/v1/cars/{id}", carDto.getId())
+                                .param("homophones", "false")
+                                .accept(MediaType.APPLICATION_JSON));
+
+        // then
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.model.name").value("Micra"))
+                .andExpect(jsonPath("$.model.homophones").doesNotExist())
+                .andExpect(jsonPath("$.model.homophonesPartial").doesNotExist());
+    }
+
+    @Test
+    void retrieve_InvalidHomophonesParam_400BadRequest() throws Exception {
+        // when
+        final ResultActions resultActions =
+                mockMvc.perform(
+                        get("/api/v1/cars/{id}", UUID.randomUUID())
+                                .param("homophones", "maybe")
+                                .accept(MediaType.APPLICATION_JSON));
+
+        // then
+        resultActions.andExpect(status().isBadRequest());
+        verify(mockCarService, never()).retrieveCar(any(), anyBoolean(), any());
+    }
+
     @Test
     void retrieve_CarNotFound_404NotFound() throws Exception {
         // given
         final UUID id = UUID.randomUUID();
-        willReturn(Optional.empty()).given(mockCarService).retrieveCar(id);
+        willReturn(Optional.empty()).given(mockCarService).retrieveCar(eq(id), eq(true), any());
 
         // when
         final ResultActions resultActions =
@@ -370,14 +588,16 @@ class CarRestApiV1Test {
         // then
         resultActions.andExpect(status().isBadRequest());
 
-        verify(mockCarService, never()).retrieveCar(any());
+        verify(mockCarService, never()).retrieveCar(any(), anyBoolean(), any());
     }
 
     @Test
     void retrieve_UncheckException_500ServerError() throws Exception {
         // given
         final UUID id = UUID.randomUUID();
-        willThrow(RuntimeException.class).given(mockCarService).retrieveCar(id);
+        willThrow(RuntimeException.class)
+                .given(mockCarService)
+                .retrieveCar(eq(id), eq(true), any());
 
         // when
         final ResultActions resultActions =
@@ -387,6 +607,137 @@ class CarRestApiV1Test {
         resultActions.andExpect(status().isInternalServerError());
     }
 
+    @Test
+    void retrieve_TimeoutParam_DeadlinePassedToService() throws Exception {
+        // given
+        final UUID id = UUID.randomUUID();
+        final Instant before = Instant.now();
+
+        // when
+        mockMvc.perform(
+                get("/api/v1/cars/{id}", id)
+                        .param("timeout", "250ms")
+                        .header(CarRestApiV1.REQUEST_TIMEOUT_HEADER, "5s")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // then
+        final ArgumentCaptor<Instant> deadline = ArgumentCaptor.forClass(Instant.class);
+        verify(mockCarService).retrieveCar(eq(id), eq(true), deadline.capture());
+
+        assertFalse(deadline.getValue().isBefore(before.plusMillis(250)));
+        assertFalse(deadline.getValue().isAfter(Instant.now().plusMillis(250)));
+    }
+
+    @Test
+    void retrieve_TimeoutHeader_DeadlinePassedToService() throws Exception {
+        // given
+        final UUID id = UUID.randomUUID();
+        final Instant before = Instant.now();
+
+        // when
+        mockMvc.perform(
+                get("/api/v1/cars/{id}", id)
+                        .header(CarRestApiV1.REQUEST_TIMEOUT_HEADER, "5s")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // then
+        final ArgumentCaptor<Instant> deadline = ArgumentCaptor.forClass(Instant.class);
+        verify(mockCarService).retrieveCar(eq(id), eq(true), deadline.capture());
+
+        assertFalse(deadline.getValue().isBefore(before.plusSeconds(5)));
+        assertFalse(deadline.getValue().isAfter(Instant.now().plusSeconds(5)));
+    }
+
+    @Test
+    void retrieve_InvalidTimeoutParam_400BadRequest() throws Exception {
+        // when
+        final ResultActions resultActions =
+                mockMvc.perform(
+                        get("/api/v1/cars/{id}", UUID.randomUUID())
+                                .param("timeout", "soon")
+                                .accept(MediaType.APPLICATION_JSON));
+
+        // then
+        resultActions.andExpect(status().isBadRequest());
+        verify(mockCarService, never()).retrieveCar(any(), anyBoolean(), any());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0s", "-1s"})
+    void retrieve_NonPositiveTimeoutParam_400BadRequest(final String timeout) throws Exception {
+        // when
+        final ResultActions resultActions =
+                mockMvc.perform(
+                        get("/api/v1/cars/{id}", UUID.randomUUID())
+                                .param("timeout", timeout)
+                                .accept(MediaType.APPLICATION_JSON));
+
+        // then
+        resultActions.andExpect(status().isBadRequest());
+        verify(mockCarService, never()).retrieveCar(any(), anyBoolean(), any());
+    }
+
+    @Test
+    void retrieve_NonPositiveTimeoutHeader_400BadRequest() throws Exception {
+        // when
+        final ResultActions resultActions =
+                mockMvc.perform(
+                        get("/api/v1/cars/{id}", UUID.randomUUID())
+                                .header(CarRestApiV1.REQUEST_TIMEOUT_HEADER, "0ms")
+                                .accept(MediaType.APPLICATION_JSON));
+
+        // then
+        resultActions.andExpect(status().isBadRequest());
+        verify(mockCarService, never()).retrieveCar(any(), anyBoolean(), any());
+    }
+
+    @Test
+    void retrieve_TimeoutOverMax_DeadlineCappedAtMax() throws Exception {
+        // given
+        final UUID id = UUID.randomUUID();
+        final Instant before = Instant.now();
+
+        // when
+        mockMvc.perform(
+                get("/api/v1/cars/{id}", id)
+                        .param("timeout", "1h")
+                        .accept(MediaType.APPLICATION_JSON));
+
+        // then
+        final ArgumentCaptor<Instant> deadline = ArgumentCaptor.forClass(Instant.class);
+        verify(mockCarService).retrieveCar(eq(id), eq(true), deadline.capture());
+
+        assertFalse(deadline.getValue().isBefore(before.plusSeconds(10)));
+        assertFalse(deadline.getValue().isAfter(Instant.now().plusSeconds(10)));
+    }
+
+    @Test
+    void retrieve_HomophonesNotFoundInTime_HomophonesPartialIncluded() throws Exception {
+        // given
+        final CarDto carDto =
+                new CarDto(
+                        UUID.randomUUID(),
+                        "Nissan",
+                        new ModelDto("Micra", null, true),
+                        "Blue",
+                        2012);
+        willReturn(Optional.of(carDto))
+                .given(mockCarService)
+                .retrieveCar(eq(carDto.getId()), eq(true), any());
+
+        // when
+        final ResultActions resultActions =
+                mockMvc.perform(
+                        get("/api/v1/cars/{id}", carDto.getId())
+                                .accept(MediaType.APPLICATION_JSON));
+
+        // then
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.model.homophones").doesNotExist())
+                .andExpect(jsonPath("$.model.homophonesPartial").value(true));
+    }
+
     @Test
     void delete_HappyPath_200Ok() throws Exception {
         // given
@@ -448,7 +799,9 @@ class CarRestApiV1Test {
         // given
         final CarDto carDto =
                 new CarDto(UUID.randomUUID(), "Nissan", new ModelDto("Juke", ""), "Blue", 2012);
-        willReturn(List.of(carDto)).given(mockCarService).findCarsByMake(carDto.getMake());
+        willReturn(new CarPage(List.of(carDto), null))
+                .given(mockCarService)
+                .findCarsByMake(eq(carDto.getMake()), eq(100), isNull(), eq(true), any());
 
         // when
         final ResultActions resultActions =
@@ -467,7 +820,9 @@ class CarRestApiV1Test {
     void retrieveByMake_NoMatches_200OkWithEmptyArrayJson() throws Exception {
         // given
         final String make = "Aston Martin";
-        willReturn(List.of()).given(mockCarService).findCarsByMake(make);
+        willReturn(new CarPage(List.of(), null))
+                .given(mockCarService)
+                .findCarsByMake(eq(make), eq(100), isNull(), eq(true), any());
 
         // when
         final ResultActions resultActions =
@@ -481,11 +836,97 @@ class CarRestApiV1Test {
                 .andExpect(content().json("[]"));
     }
 
+    @Test
+    void retrieveByMake_MoreCarsThanLimit_NextLinkIncluded() throws Exception {
+        // given
+        final CarDto carDto =
+                new CarDto(UUID.randomUUID(), "Nissan", new ModelDto("Juke", ""), "Blue", 2012);
+        final CarCursor next = new CarCursor("juke", carDto.getId());
+        willReturn(new CarPage(List.of(carDto), next))
+                .given(mockCarService)
+                .findCarsByMake(eq("Nissan"), eq(1), isNull(), eq(false), any());
+
+        // when
+        final ResultActions resultActions =
+                mockMvc.perform(
+                        get("/api/v1/cars/make/{make}?limit=1&homophones=false", "Nissan")
+                                .accept(MediaType.APPLICATION_JSON));
+
+        // then
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(
+                        header().string(
+                                        HttpHeaders.LINK,
+                                        "<http://localhost/api/v1/cars/make/Nissan"
+                                                + "?homophones=false&limit=1&after="
+                                                + next
+                                                + ">; rel=\"next\""));
+    }
+
+    @Test
+    void retrieveByMake_CursorSupplied_PassedToService() throws Exception {
+        // given
+        final CarCursor after = new CarCursor("juke", UUID.randomUUID());
+        willReturn(new CarPage(List.of(), null))
+                .given(mockCarService)
+                .findCarsByMake(eq("Nissan"), eq(100), eq(after), eq(true), any());
+
+        // when
+        final ResultActions resultActions =
+                mockMvc.perform(
+                        get("/api/v1/cars/make/{make}", "Nissan")
+                                .param("after", after.toString())
+                                .accept(MediaType.APPLICATION_JSON));
+
+        // then
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LINK))
+                .andExpect(content().json("[]"));
+    }
+
+    @Test
+    void retrieveByMake_LimitAboveMax_LimitCapped() throws Exception {
+        // given
+        willReturn(new CarPage(List.of(), null))
+                .given(mockCarService)
+                .findCarsByMake(eq("Nissan"), eq(1000), isNull(), eq(true), any());
+
+        // when
+        final ResultActions resultActions =
+                mockMvc.perform(
+                        get("/api/v1/cars/make/{make}", "Nissan")
+                                .param("limit", "1000000")
+                                .accept(MediaType.APPLICATION_JSON));
+
+        // then
+        resultActions.andExpect(status().isOk());
+        verify(mockCarService).findCarsByMake(eq("Nissan"), eq(1000), isNull(), eq(true), any());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"limit=0", "limit=-1", "after=not-a-cursor", "after=Zm9jdXM"})
+    void retrieveByMake_InvalidPageParams_400BadRequest(final String param) throws Exception {
+        // when
+        final ResultActions resultActions =
+                mockMvc.perform(
+                        get("/api/v1/cars/make/{make}?" + param, "Nissan")
+                                .accept(MediaType.APPLICATION_JSON));
+
+        // then
+        resultActions.andExpect(status().isBadRequest());
+        verify(mockCarService, never())
+                .findCarsByMake(any(), anyInt(), any(), anyBoolean(), any());
+    }
+
     @Test
     void retrieveByMake_UncheckedError_500OkServerError() throws Exception {
         // given
         final String make = "Volvo";
-        willThrow(RuntimeException.class).given(mockCarService).findCarsByMake(make);
+        willThrow(RuntimeException.class)
+                .given(mockCarService)
+                .findCarsByMake(eq(make), eq(100), isNull(), eq(true), any());
 
         // when
         final ResultActions resultActions =
@@ -496,14 +937,149 @@ class CarRestApiV1Test {
         resultActions.andExpect(status().isInternalServerError());
     }
 
+    @Test
+    void retrieveByMake_AnyMediaTypeAccepted_PageReturned() throws Exception {
+        // given
+        final CarDto carDto =
+                new CarDto(UUID.randomUUID(), "Nissan", new ModelDto("Leaf", ""), "White", 2018);
+        willReturn(new CarPage(List.of(carDto), null))
+                .given(mockCarService)
+                .findCarsByMake(eq(carDto.getMake()), eq(100), isNull(), eq(true), any());
+
+        // when
+        final ResultActions resultActions =
+                mockMvc.perform(
+                        get("/api/v1/cars/make/{make}", carDto.getMake()).accept(MediaType.ALL));
+
+        // then
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(objectMapper.writeValueAsString(List.of(carDto))));
+    }
+
+    @Test
+    void streamByMake_NdjsonAccepted_CarPerLine() throws Exception {
+        // given
+        final CarDto focus =
+                new CarDto(UUID.randomUUID(), "Ford", new ModelDto("Focus", ""), "Blue", 2010);
+        final CarDto kuga =
+                new CarDto(UUID.randomUUID(), "Ford", new ModelDto("Kuga", ""), "Black", 2020);
+        willAnswer(
+                        invocation -> {
+                            final Consumer<Collection<CarDto>> batches = invocation.getArgument(3);
+                            batches.accept(List.of(focus));
+                            batches.accept(List.of(kuga));
+                            return null;
+                        })
+                .given(mockCarService)
+                .streamCarsByMake(eq("Ford"), eq(true), eq(Duration.ofMillis(250)), any());
+
+        // when
+        final MvcResult result =
+                mockMvc.perform(
+                                get("/api/v1/cars/make/{make}?timeout=250ms", "Ford")
+                                        .accept(MediaType.APPLICATION_NDJSON))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(
+                        content()
+                                .string(
+                                        objectMapper.writeValueAsString(focus)
+                                                + "\n"
+                                                + objectMapper.writeValueAsString(kuga)
+                                                + "\n"));
+    }
+
+    @Test
+    void streamByMake_StreamParam_JsonArrayStreamed() throws Exception {
+        // given
+        final CarDto focus =
+                new CarDto(UUID.randomUUID(), "Ford", new ModelDto("Focus", ""), "Blue", 2010);
+        final CarDto kuga =
+                new CarDto(UUID.randomUUID(), "Ford", new ModelDto("Kuga", ""), "Black", 2020);
+        willAnswer(
+                        invocation -> {
+                            final Consumer<Collection<CarDto>> batches = invocation.getArgument(3);
+                            batches.accept(List.of(focus));
+                            batches.accept(List.of(kuga));
+                            return null;
+                        })
+                .given(mockCarService)
+                .streamCarsByMake(eq("Ford"), eq(true), any(), any());
+
+        // when
+        final MvcResult result =
+                mockMvc.perform(
+                                get("/api/v1/cars/make/{make}?stream=true", "Ford")
+                                        .accept(MediaType.APPLICATION_JSON))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(
+                        content()
+                                .json(
+                                        objectMapper.writeValueAsString(List.of(focus, kuga)),
+                                        true));
+        verify(mockCarService, never())
+                .findCarsByMake(any(), anyInt(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    void streamByMake_NdjsonAccepted_StreamTimeoutApplied() throws Exception {
+        // when
+        final MvcResult result =
+                mockMvc.perform(
+                                get("/api/v1/cars/make/{make}", "Ford")
+                                        .accept(MediaType.APPLICATION_NDJSON))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+        // then
+        final long timeout = result.getRequest().getAsyncContext().getTimeout();
+        assertEquals(Duration.ofMinutes(10).toMillis(), timeout);
+    }
+
+    @Test
+    void streamByMake_NoMatches_200OkWithEmptyBody() throws Exception {
+        // when
+        final MvcResult result =
+                mockMvc.perform(
+                                get("/api/v1/cars/make/{make}", "Ford")
+                                        .accept(MediaType.APPLICATION_NDJSON))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(""));
+    }
+
     @Test
     void retrieveByMakeAndModel_HappyPath_200Ok() throws Exception {
         // given
         final CarDto carDto =
                 new CarDto(UUID.randomUUID(), "VW", new ModelDto("Golf", ""), "Blue", 2012);
-        willReturn(List.of(carDto))
+        willReturn(new CarPage(List.of(carDto), null))
                 .given(mockCarService)
-                .findCarsByMakeAndModel(carDto.getMake(), carDto.getModel().getName());
+                .findCarsByMakeAndModel(
+                        eq(carDto.getMake()),
+                        eq(carDto.getModel().getName()),
+                        eq(100),
+                        isNull(),
+                        eq(true),
+                        any());
 
         // when
         final ResultActions resultActions =
@@ -526,7 +1102,9 @@ class CarRestApiV1Test {
         // given
         final String make = "VW";
         final String model = "Polo";
-        willReturn(List.of()).given(mockCarService).findCarsByMakeAndModel(make, model);
+        willReturn(new CarPage(List.of(), null))
+                .given(mockCarService)
+                .findCarsByMakeAndModel(eq(make), eq(model), eq(100), isNull(), eq(true), any());
 
         // when
         final ResultActions resultActions =
@@ -546,7 +1124,9 @@ class CarRestApiV1Test {
         // given
         final String make = "Kia";
         final String model = "Rio";
-        willThrow(RuntimeException.class).given(mockCarService).findCarsByMakeAndModel(make, model);
+        willThrow(RuntimeException.class)
+                .given(mockCarService)
+                .findCarsByMakeAndModel(eq(make), eq(model), eq(100), isNull(), eq(true), any());
 
         // when
         final ResultActions resultActions =
@@ -557,4 +1137,119 @@ class CarRestApiV1Test {
         // then
         resultActions.andExpect(status().isInternalServerError());
     }
+
+    @Test
+    void streamByMakeAndModel_NdjsonAccepted_CarPerLine() throws Exception {
+        // given
+        final CarDto red =
+                new CarDto(UUID.randomUUID(), "Ford", new ModelDto("Puma", ""), "Red", 2021);
+        final CarDto grey =
+                new CarDto(UUID.randomUUID(), "Ford", new ModelDto("Puma", ""), "Grey", 2021);
+        willAnswer(
+                        invocation -> {
+                            final Consumer<Collection<CarDto>> batches = invocation.getArgument(4);
+                            batches.accept(List.of(red, grey));
+                            return null;
+                        })
+                .given(mockCarService)
+                .streamCarsByMakeAndModel(eq("Ford"), eq("Puma"), eq(false), any(), any());
+
+        // when
+        final MvcResult result =
+                mockMvc.perform(
+                                get(
+                                                "/api/v1/cars/make/{make}/model/{model}"
+                                                        + "?homophones=false",
+                                                "Ford",
+                                                "Puma")
+                                        .accept(MediaType.APPLICATION_NDJSON))
+                        .andExpect(request().asyncStarted())
+                        .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(
+                        content()
+                                .string(
+                                        objectMapper.writeValueAsString(red)
+                                                + "\n"
+                                                + objectMapper.writeValueAsString(grey)
+                                                + "\n"));
+    }
+
+    @Test
+    void retrieveBySoundsLike_HappyPath_200Ok() throws Exception {
+        // given
+        final CarDto carDto =
+                new CarDto(UUID.randomUUID(), "Ford", new ModelDto("Focus", ""), "Blue", 2010);
+        willReturn(List.of(carDto))
+                .given(mockCarService)
+                .findCarsSoundingLike(eq("fokus"), eq(100), eq(true), any());
+
+        // when
+        final ResultActions resultActions =
+                mockMvc.perform(
+                        get("/api/v1/cars/sounds-like/{word}", "fokus")
+                                .accept(MediaType.APPLICATION_JSON));
+
+        // then
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(objectMapper.writeValueAsString(List.of(carDto))));
+    }
+
+    @Test
+    void retrieveBySoundsLike_NoMatches_200OkWithEmptyArrayJson() throws Exception {
+        // given
+        willReturn(List.of())
+                .given(mockCarService)
+                .findCarsSoundingLike(eq("xyzzy"), eq(100), eq(true), any());
+
+        // when
+        final ResultActions resultActions =
+                mockMvc.perform(
+                        get("/api/v1/cars/sounds-like/{word}", "xyzzy")
+                                .accept(MediaType.APPLICATION_JSON));
+
+        // then
+        resultActions
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("[]"));
+    }
+
+    @Test
+    void retrieveBySoundsLike_LimitAboveMax_LimitCapped() throws Exception {
+        // given
+        willReturn(List.of())
+                .given(mockCarService)
+                .findCarsSoundingLike(eq("fokus"), eq(1000), eq(true), any());
+
+        // when
+        final ResultActions resultActions =
+                mockMvc.perform(
+                        get("/api/v1/cars/sounds-like/{word}", "fokus")
+                                .param("limit", "1000000")
+                                .accept(MediaType.APPLICATION_JSON));
+
+        // then
+        resultActions.andExpect(status().isOk());
+        verify(mockCarService).findCarsSoundingLike(eq("fokus"), eq(1000), eq(true), any());
+    }
+
+    @Test
+    void retrieveBySoundsLike_InvalidLimit_400BadRequest() throws Exception {
+        // when
+        final ResultActions resultActions =
+                mockMvc.perform(
+                        get("/api/v1/cars/sounds-like/{word}?limit=0", "fokus")
+                                .accept(MediaType.APPLICATION_JSON));
+
+        // then
+        resultActions.andExpect(status().isBadRequest());
+        verify(mockCarService, never()).findCarsSoundingLike(any(), anyInt(), anyBoolean(), any());
+    }
 }
@@ -3,28 +3,43 @@ package uk.co.aaronvaz.carsapi;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
-import static org.junit.jupiter.api.Assertions.assertNotEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.BDDMockito.willReturn;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import javax.validation.Validation;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
 import org.mockito.ArgumentCaptor;
-import org.springframework.dao.EmptyResultDataAccessException;
-import uk.co.aaronvaz.carsapi.datamuse.DatamuseRestApi;
-import uk.co.aaronvaz.carsapi.datamuse.model.SoundsLikeResponseV1;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import uk.co.aaronvaz.carsapi.homophones.HomophoneService;
 import uk.co.aaronvaz.carsapi.model.api.CarDto;
 import uk.co.aaronvaz.carsapi.model.api.CreateOrUpdateCarRequestV1;
 import uk.co.aaronvaz.carsapi.model.api.ModelDto;
@@ -33,11 +48,28 @@ import uk.co.aaronvaz.carsapi.model.db.Car;
 
 class CarServiceTest {
 
+    private static final Instant DEADLINE = Instant.now().plusSeconds(1);
+
+    private static final int LIMIT = 10;
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(1);
+
     private final CarRepository mockRepository = mock(CarRepository.class);
 
-    private final DatamuseRestApi mockDatamuseRestApi = mock(DatamuseRestApi.class);
+    private final HomophoneService mockHomophoneService = mock(HomophoneService.class);
+
+    private final SoundsLikeIndex mockSoundsLikeIndex = mock(SoundsLikeIndex.class);
 
-    private final CarService carService = new CarService(mockRepository, mockDatamuseRestApi);
+    private final PlatformTransactionManager mockTransactionManager =
+            mock(PlatformTransactionManager.class);
+
+    private final CarService carService =
+            new CarService(
+                    mockRepository,
+                    mockHomophoneService,
+                    mockSoundsLikeIndex,
+                    mockTransactionManager,
+                    Validation.buildDefaultValidatorFactory().getValidator());
 
     @Test
     void addCar_HappyPath_CarAddedToDb() {
@@ -47,14 +79,8 @@ class CarServiceTest {
         final CreateOrUpdateCarRequestV1 request =
                 new CreateOrUpdateCarRequestV1("BMW", "i8", "Silver", 2015);
 
-        final Collection<SoundsLikeResponseV1> homophones =
-                List.of(
-                        new SoundsLikeResponseV1("a", 95, 1),
-                        new SoundsLikeResponseV1("uh", 95, 1));
-        willReturn(homophones).given(mockDatamuseRestApi).soundsLike(request.getModel());
-
         // when
-        final CarDto carDto = carService.addCar(request);
+        final UUID id = carService.addCar(request);
 
         // then
         final ArgumentCaptor<Car> carCaptor = ArgumentCaptor.forClass(Car.class);
@@ -62,51 +88,159 @@ class CarServiceTest {
 
         // verify DB model against request data
         final Car storedCar = carCaptor.getValue();
-        assertNotNull(storedCar.getId());
+        assertEquals(id, storedCar.getId());
         assertEquals(request.getMake(), storedCar.getMake());
         assertEquals(request.getModel(), storedCar.getModel());
         assertEquals(request.getColour(), storedCar.getColour());
         assertEquals(request.getYear(), storedCar.getYear());
 
-        // Verify DTO against request data
-        assertNotNull(carDto.getId());
-        assertEquals(request.getMake(), carDto.getMake());
-        assertEquals(new ModelDto(request.getModel(), "a, uh"), carDto.getModel());
-        assertEquals(request.getColour(), carDto.getColour());
-        assertEquals(request.getYear(), carDto.getYear());
+        // verify homophones are enriched at write time
+        verify(mockHomophoneService).enrichAsync(request.getModel());
+        verify(mockSoundsLikeIndex).put(id, request.getModel());
+    }
+
+    @Test
+    void addCars_MoreCarsThanChunk_CarsInsertedInChunks() {
+        // given
+        final List<CreateOrUpdateCarRequestV1> requests =
+                List.of(
+                        new CreateOrUpdateCarRequestV1("Ford", "Focus", "Blue", 2010),
+                        new CreateOrUpdateCarRequestV1("Ford", "Focus", "Red", 2012),
+                        new CreateOrUpdateCarRequestV1("Ford", "Kuga", "Black", 2020));
+
+        // when
+        final List<BulkAddResult> results = carService.addCars(requests, 2);
+
+        // then
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<Collection<Car>> chunks = ArgumentCaptor.forClass(Collection.class);
+        verify(mockRepository, times(2)).insertAll(chunks.capture());
+        assertEquals(
+                List.of(2, 1),
+                chunks.getAllValues().stream().map(Collection::size).collect(Collectors.toList()));
+
+        final List<Car> cars =
+                chunks.getAllValues().stream()
+                        .flatMap(Collection::stream)
+                        .collect(Collectors.toList());
+        assertEquals(
+                cars.stream()
+                        .map(car -> BulkAddResult.created(car.getId()))
+                        .collect(Collectors.toList()),
+                results);
+        assertEquals(
+                List.of("Blue", "Red", "Black"),
+                cars.stream().map(Car::getColour).collect(Collectors.toList()));
+
+        // homophones are enriched once per model of a chunk
+        verify(mockHomophoneService, times(2)).enrichAsync("Focus");
+        verify(mockHomophoneService).enrichAsync("Kuga");
+        cars.forEach(car -> verify(mockSoundsLikeIndex).put(car.getId(), car.getModel()));
+    }
+
+    @Test
+    void addCars_InvalidRequest_OnlyValidCarsInserted() {
+        // given
+        final List<CreateOrUpdateCarRequestV1> requests =
+                List.of(
+                        new CreateOrUpdateCarRequestV1("Ford", "", "Blue", 0),
+                        new CreateOrUpdateCarRequestV1("Ford", "Puma", "Grey", 2021));
+
+        // when
+        final List<BulkAddResult> results = carService.addCars(requests, 10);
+
+        // then
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<Collection<Car>> chunk = ArgumentCaptor.forClass(Collection.class);
+        verify(mockRepository).insertAll(chunk.capture());
+        final Car puma = chunk.getValue().iterator().next();
+        assertEquals(1, chunk.getValue().size());
+        assertEquals("Puma", puma.getModel());
+
+        assertEquals(
+                List.of(
+                        BulkAddResult.invalid(
+                                List.of(
+                                        "model must not be blank",
+                                        "year must be greater than 0")),
+                        BulkAddResult.created(puma.getId())),
+                results);
+    }
+
+    @Test
+    void addCars_EveryRequestInvalid_NothingInserted() {
+        // when
+        final List<BulkAddResult> results =
+                carService.addCars(
+                        List.of(new CreateOrUpdateCarRequestV1("", "Puma", "Grey", 2021)), 10);
+
+        // then
+        assertEquals(List.of(BulkAddResult.invalid(List.of("make must not be blank"))), results);
+        verify(mockRepository, never()).insertAll(any());
+        verifyNoInteractions(mockHomophoneService, mockSoundsLikeIndex);
+    }
+
+    @Test
+    void addCars_ChunkFailsToInsert_ChunkFailedAndNextChunkInserted() {
+        // given
+        willThrow(DataIntegrityViolationException.class)
+                .willDoNothing()
+                .given(mockRepository)
+                .insertAll(any());
+
+        final List<CreateOrUpdateCarRequestV1> requests =
+                List.of(
+                        new CreateOrUpdateCarRequestV1("Ford", "Focus", "Blue", 2010),
+                        new CreateOrUpdateCarRequestV1("Ford", "Kuga", "Black", 2020));
+
+        // when
+        final List<BulkAddResult> results = carService.addCars(requests, 1);
+
+        // then
+        assertEquals(BulkAddResult.failed(), results.get(0));
+        assertEquals(BulkAddResult.Status.CREATED, results.get(1).getStatus());
+        verify(mockHomophoneService, never()).enrichAsync("Focus");
+        verify(mockHomophoneService).enrichAsync("Kuga");
     }
 
     @Test
     void updateCar_HappyPath_CarUpdated() {
         // given
-        final Car car = new Car(UUID.randomUUID(), "Hyundai", "i10", "Red", 2004);
-        willReturn(Optional.of(car)).given(mockRepository).findById(car.getId());
+        final UUID id = UUID.randomUUID();
+        willReturn(1).given(mockRepository).update(any());
 
         final CreateOrUpdateCarRequestV1 updateCarRequest =
                 new CreateOrUpdateCarRequestV1("Hyundai", "i30", "Black", 2010);
 
         // when
-        final boolean created = carService.updateCar(car.getId(), updateCarRequest);
+        final boolean created = carService.updateCar(id, updateCarRequest);
 
         // then
         assertFalse(created);
 
         final ArgumentCaptor<Car> carCaptor = ArgumentCaptor.forClass(Car.class);
-        verify(mockRepository).save(carCaptor.capture());
+        verify(mockRepository).update(carCaptor.capture());
 
         final Car updatedCar = carCaptor.getValue();
-        assertEquals(car.getId(), updatedCar.getId());
+        assertEquals(id, updatedCar.getId());
         assertEquals(updateCarRequest.getMake(), updatedCar.getMake());
         assertEquals(updateCarRequest.getModel(), updatedCar.getModel());
         assertEquals(updateCarRequest.getColour(), updatedCar.getColour());
         assertEquals(updateCarRequest.getYear(), updatedCar.getYear());
+
+        // the car is never read or inserted
+        verify(mockRepository, never()).findById(any());
+        verify(mockRepository, never()).insertAll(any());
+
+        verify(mockHomophoneService).enrichAsync(updateCarRequest.getModel());
+        verify(mockSoundsLikeIndex).put(id, updateCarRequest.getModel());
     }
 
     @Test
     void updateCar_CarDoesntExist_CarCreated() {
         // given
         final UUID id = UUID.randomUUID();
-        willReturn(Optional.empty()).given(mockRepository).findById(id);
+        willReturn(0).given(mockRepository).update(any());
 
         final CreateOrUpdateCarRequestV1 updateCarRequest =
                 new CreateOrUpdateCarRequestV1("Hyundai", "i30", "Black", 2010);
@@ -117,67 +251,86 @@ class CarServiceTest {
         // then
         assertTrue(created);
 
-        final ArgumentCaptor<Car> carCaptor = ArgumentCaptor.forClass(Car.class);
-        verify(mockRepository).save(carCaptor.capture());
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<Collection<Car>> carsCaptor =
+                ArgumentCaptor.forClass(Collection.class);
+        verify(mockRepository).insertAll(carsCaptor.capture());
+        assertEquals(1, carsCaptor.getValue().size());
 
-        final Car updatedCar = carCaptor.getValue();
+        final Car updatedCar = carsCaptor.getValue().iterator().next();
 
         assertEquals(id, updatedCar.getId());
         assertEquals(updateCarRequest.getMake(), updatedCar.getMake());
         assertEquals(updateCarRequest.getModel(), updatedCar.getModel());
         assertEquals(updateCarRequest.getColour(), updatedCar.getColour());
         assertEquals(updateCarRequest.getYear(), updatedCar.getYear());
+
+        verify(mockHomophoneService).enrichAsync(updateCarRequest.getModel());
+        verify(mockSoundsLikeIndex).put(id, updateCarRequest.getModel());
+    }
+
+    @Test
+    void updateCar_CarCreatedConcurrently_CarUpdated() {
+        // given
+        final UUID id = UUID.randomUUID();
+        willReturn(0, 1).given(mockRepository).update(any());
+        willThrow(DataIntegrityViolationException.class).given(mockRepository).insertAll(any());
+
+        final CreateOrUpdateCarRequestV1 updateCarRequest =
+                new CreateOrUpdateCarRequestV1("Hyundai", "i30", "Black", 2010);
+
+        // when
+        final boolean created = carService.updateCar(id, updateCarRequest);
+
+        // then
+        assertFalse(created);
+        verify(mockRepository, times(2)).update(any());
     }
 
     @Test
     void partialUpdateCar_PartialUpdate_CarUpdated() throws CarNotFoundException {
         // given
-        final Car car = new Car(UUID.randomUUID(), "Seat", "Ibiza", "Red", 2010);
-        willReturn(Optional.of(car)).given(mockRepository).findById(car.getId());
+        final UUID id = UUID.randomUUID();
+        willReturn(1).given(mockRepository).updateNonNull(id, null, "Leon", null, null);
 
         final PartialUpdateCarRequestV1 updateCarRequest =
                 new PartialUpdateCarRequestV1(null, "Leon", null, null);
 
         // when
-        carService.partialUpdateCar(car.getId(), updateCarRequest);
-
-        // then
-        final ArgumentCaptor<Car> carCaptor = ArgumentCaptor.forClass(Car.class);
-        verify(mockRepository).save(carCaptor.capture());
+        carService.partialUpdateCar(id, updateCarRequest);
 
-        final Car updatedCar = carCaptor.getValue();
-        assertNotEquals(car, updatedCar);
+        // then only the model is written, without reading the car first
+        verify(mockRepository).updateNonNull(id, null, "Leon", null, null);
+        verify(mockRepository, never()).findById(any());
+        verify(mockRepository, never()).save(any());
 
-        // check that only model was updated and the rest stayed the same
-        assertEquals(car.getId(), updatedCar.getId());
-        assertEquals(car.getMake(), updatedCar.getMake());
-        assertEquals(updateCarRequest.getModel(), updatedCar.getModel());
-        assertEquals(car.getColour(), updatedCar.getColour());
-        assertEquals(car.getYear(), updatedCar.getYear());
+        verify(mockHomophoneService).enrichAsync(updateCarRequest.getModel());
+        verify(mockSoundsLikeIndex).put(id, updateCarRequest.getModel());
     }
 
     @Test
-    void partialUpdateCar_SamePropsSubmitted_CarNotUpdated() throws CarNotFoundException {
+    void partialUpdateCar_ModelNotUpdated_HomophonesNotEnriched() throws CarNotFoundException {
         // given
-        final Car car = new Car(UUID.randomUUID(), "Seat", "Ibiza", "Red", 2010);
-        willReturn(Optional.of(car)).given(mockRepository).findById(car.getId());
+        final UUID id = UUID.randomUUID();
+        willReturn(1).given(mockRepository).updateNonNull(id, null, null, "Blue", null);
 
         final PartialUpdateCarRequestV1 updateCarRequest =
-                new PartialUpdateCarRequestV1(
-                        car.getMake(), car.getModel(), car.getColour(), car.getYear());
+                new PartialUpdateCarRequestV1(null, null, "Blue", null);
 
         // when
-        carService.partialUpdateCar(car.getId(), updateCarRequest);
+        carService.partialUpdateCar(id, updateCarRequest);
 
         // then
-        verify(mockRepository, never()).save(any());
+        verify(mockRepository).updateNonNull(id, null, null, "Blue", null);
+        verify(mockHomophoneService, never()).enrichAsync(any());
+        verify(mockSoundsLikeIndex, never()).put(any(), any());
     }
 
     @Test
     void partialUpdateCar_CarNotFound_ExceptionThrown() {
         // given
         final UUID id = UUID.randomUUID();
-        willReturn(Optional.empty()).given(mockRepository).findById(id);
+        willReturn(0).given(mockRepository).updateNonNull(id, "Hyundai", "i30", "Black", 2010);
 
         final PartialUpdateCarRequestV1 updateCarRequest =
                 new PartialUpdateCarRequestV1("Hyundai", "i30", "Black", 2010);
@@ -188,7 +341,7 @@ class CarServiceTest {
         // then
         assertThrows(CarNotFoundException.class, updateCar);
 
-        verify(mockRepository, never()).save(any());
+        verifyNoInteractions(mockHomophoneService, mockSoundsLikeIndex);
     }
 
     @Test
@@ -197,14 +350,12 @@ class CarServiceTest {
         final Car car = new Car(UUID.randomUUID(), "Hyundai", "i20", "Red", 2004);
         willReturn(Optional.of(car)).given(mockRepository).findById(car.getId());
 
-        final Collection<SoundsLikeResponseV1> homophones =
-                List.of(
-                        new SoundsLikeResponseV1("eh", 95, 1),
-                        new SoundsLikeResponseV1("uhh", 95, 1));
-        willReturn(homophones).given(mockDatamuseRestApi).soundsLike(car.getModel());
+        willReturn(CompletableFuture.completedFuture("eh, uhh"))
+                .given(mockHomophoneService)
+                .homophonesAsync(car.getModel(), DEADLINE);
 
         // when
-        final Optional<CarDto> retrievedCar = carService.retrieveCar(car.getId());
+        final Optional<CarDto> retrievedCar = carService.retrieveCar(car.getId(), true, DEADLINE);
 
         // then
         assertTrue(retrievedCar.isPresent());
@@ -217,6 +368,38 @@ class CarServiceTest {
         assertEquals(car.getYear(), carDto.getYear());
     }
 
+    @Test
+    void retrieveCar_HomophonesExcluded_HomophonesNotLookedUp() {
+        // given
+        final Car car = new Car(UUID.randomUUID(), "Toyota", "Yaris", "Red", 2004);
+        willReturn(Optional.of(car)).given(mockRepository).findById(car.getId());
+
+        // when
+        final Optional<CarDto> retrievedCar = carService.retrieveCar(car.getId(), false, DEADLINE);
+
+        // then
+        assertEquals(Optional.of(new ModelDto("Yaris", null)), retrievedCar.map(CarDto::getModel));
+        verifyNoInteractions(mockHomophoneService);
+    }
+
+    @Test
+    void retrieveCar_HomophonesNotFoundByDeadline_HomophonesMarkedPartial() {
+        // given
+        final Car car = new Car(UUID.randomUUID(), "Hyundai", "i30", "Red", 2004);
+        willReturn(Optional.of(car)).given(mockRepository).findById(car.getId());
+
+        willReturn(CompletableFuture.completedFuture(null))
+                .given(mockHomophoneService)
+                .homophonesAsync(car.getModel(), DEADLINE);
+
+        // when
+        final Optional<CarDto> retrievedCar = carService.retrieveCar(car.getId(), true, DEADLINE);
+
+        // then
+        assertEquals(
+                Optional.of(new ModelDto("i30", null, true)), retrievedCar.map(CarDto::getModel));
+    }
+
     @Test
     void retrieveCar_CarNotFound_CarReturned() {
         // given
@@ -224,7 +407,7 @@ class CarServiceTest {
         willReturn(Optional.empty()).given(mockRepository).findById(id);
 
         // when
-        final Optional<CarDto> retrievedCar = carService.retrieveCar(id);
+        final Optional<CarDto> retrievedCar = carService.retrieveCar(id, true, DEADLINE);
 
         // then
         assertTrue(retrievedCar.isEmpty());
@@ -234,41 +417,43 @@ class CarServiceTest {
     void deleteCar_HappyPath_CarDeleted() throws CarNotFoundException {
         // given
         final UUID id = UUID.randomUUID();
+        willReturn(1).given(mockRepository).deleteById(id);
 
         // when
         carService.deleteCar(id);
 
         // then
         verify(mockRepository).deleteById(id);
+        verify(mockSoundsLikeIndex).remove(id);
     }
 
     @Test
     void deleteCar_CarNotFound_ExceptionNotThrown() {
         // given
         final UUID id = UUID.randomUUID();
-        willThrow(EmptyResultDataAccessException.class).given(mockRepository).deleteById(id);
+        willReturn(0).given(mockRepository).deleteById(id);
 
         // when
         final Executable deleteCar = () -> carService.deleteCar(id);
 
         // then
         assertThrows(CarNotFoundException.class, deleteCar);
+        verify(mockSoundsLikeIndex, never()).remove(id);
     }
 
     @Test
     void findCarsByMake_HappyPath_CarsReturned() {
         // given
         final Car car = new Car(UUID.randomUUID(), "Hyundai", "i20", "Red", 2004);
-        willReturn(List.of(car)).given(mockRepository).findByMake(car.getMake());
+        willReturn(List.of(car)).given(mockRepository).findByMake(car.getMake(), LIMIT + 1);
 
-        final Collection<SoundsLikeResponseV1> homophones =
-                List.of(
-                        new SoundsLikeResponseV1("eh", 95, 1),
-                        new SoundsLikeResponseV1("uhh", 95, 1));
-        willReturn(homophones).given(mockDatamuseRestApi).soundsLike(car.getModel());
+        willReturn(Map.of(car.getModel(), "eh, uhh"))
+                .given(mockHomophoneService)
+                .homophones(Set.of(car.getModel()), DEADLINE);
 
         // when
-        final Collection<CarDto> carsByMake = carService.findCarsByMake(car.getMake());
+        final Collection<CarDto> carsByMake =
+                carService.findCarsByMake(car.getMake(), LIMIT, null, true, DEADLINE).getCars();
 
         // then
         final CarDto carDto =
@@ -282,36 +467,161 @@ class CarServiceTest {
         assertIterableEquals(List.of(carDto), carsByMake);
     }
 
+    @Test
+    void findCarsByMake_CarsShareModel_HomophonesLookedUpOnce() {
+        // given
+        final Car red = new Car(UUID.randomUUID(), "Ford", "Focus", "Red", 2004);
+        final Car blue = new Car(UUID.randomUUID(), "Ford", "Focus", "Blue", 2012);
+        final Car black = new Car(UUID.randomUUID(), "Ford", "Kuga", "Black", 2020);
+        willReturn(List.of(red, blue, black)).given(mockRepository).findByMake("Ford", LIMIT + 1);
+
+        willReturn(Map.of("Focus", "fokus", "Kuga", "cougar"))
+                .given(mockHomophoneService)
+                .homophones(Set.of("Focus", "Kuga"), DEADLINE);
+
+        // when
+        final Collection<CarDto> carsByMake =
+                carService.findCarsByMake("Ford", LIMIT, null, true, DEADLINE).getCars();
+
+        // then
+        final List<CarDto> expectedCars =
+                List.of(
+                        new CarDto(
+                                red.getId(), "Ford", new ModelDto("Focus", "fokus"), "Red", 2004),
+                        new CarDto(
+                                blue.getId(), "Ford", new ModelDto("Focus", "fokus"), "Blue", 2012),
+                        new CarDto(
+                                black.getId(),
+                                "Ford",
+                                new ModelDto("Kuga", "cougar"),
+                                "Black",
+                                2020));
+
+        assertIterableEquals(expectedCars, carsByMake);
+        verify(mockHomophoneService).homophones(Set.of("Focus", "Kuga"), DEADLINE);
+    }
+
+    @Test
+    void findCarsByMake_SomeHomophonesNotFoundByDeadline_ThoseMarkedPartial() {
+        // given
+        final Car focus = new Car(UUID.randomUUID(), "Ford", "Focus", "Red", 2004);
+        final Car kuga = new Car(UUID.randomUUID(), "Ford", "Kuga", "Black", 2020);
+        willReturn(List.of(focus, kuga)).given(mockRepository).findByMake("Ford", LIMIT + 1);
+
+        willReturn(Map.of("Focus", "fokus"))
+                .given(mockHomophoneService)
+                .homophones(Set.of("Focus", "Kuga"), DEADLINE);
+
+        // when
+        final Collection<CarDto> carsByMake =
+                carService.findCarsByMake("Ford", LIMIT, null, true, DEADLINE).getCars();
+
+        // then
+        final List<CarDto> expectedCars =
+                List.of(
+                        new CarDto(
+                                focus.getId(), "Ford", new ModelDto("Focus", "fokus"), "Red", 2004),
+                        new CarDto(
+                                kuga.getId(),
+                                "Ford",
+                                new ModelDto("Kuga", null, true),
+                                "Black",
+                                2020));
+
+        assertIterableEquals(expectedCars, carsByMake);
+    }
+
+    @Test
+    void findCarsByMake_HomophonesExcluded_HomophonesNotLookedUp() {
+        // given
+        final Car car = new Car(UUID.randomUUID(), "Ford", "Kuga", "Black", 2020);
+        willReturn(List.of(car)).given(mockRepository).findByMake("Ford", LIMIT + 1);
+
+        // when
+        final Collection<CarDto> carsByMake =
+                carService.findCarsByMake("Ford", LIMIT, null, false, DEADLINE).getCars();
+
+        // then
+        final CarDto carDto =
+                new CarDto(car.getId(), "Ford", new ModelDto("Kuga", null), "Black", 2020);
+        assertIterableEquals(List.of(carDto), carsByMake);
+        verifyNoInteractions(mockHomophoneService);
+    }
+
     @Test
     void findCarsByMake_NoCarsFound_EmptyCollectionReturned() {
         // given
         final String make = "Ford";
-        willReturn(List.of()).given(mockRepository).findByMake(make);
+        willReturn(List.of()).given(mockRepository).findByMake(make, LIMIT + 1);
 
         // when
-        final Collection<CarDto> carsByMake = carService.findCarsByMake(make);
+        final Collection<CarDto> carsByMake =
+                carService.findCarsByMake(make, LIMIT, null, true, DEADLINE).getCars();
 
         // then
         assertIterableEquals(List.of(), carsByMake);
     }
 
+    @Test
+    void findCarsByMake_MoreCarsThanLimit_NextCursorAfterLastCarOnPage() {
+        // given
+        final Car fiesta = new Car(UUID.randomUUID(), "Ford", "Fiesta", "Red", 2004);
+        final Car focus = new Car(UUID.randomUUID(), "Ford", "Focus", "Blue", 2012);
+        final Car kuga = new Car(UUID.randomUUID(), "Ford", "Kuga", "Black", 2020);
+        willReturn(List.of(fiesta, focus, kuga)).given(mockRepository).findByMake("Ford", 3);
+
+        // when
+        final CarPage page = carService.findCarsByMake("Ford", 2, null, false, DEADLINE);
+
+        // then
+        final List<CarDto> expectedCars =
+                List.of(
+                        new CarDto(
+                                fiesta.getId(), "Ford", new ModelDto("Fiesta", null), "Red", 2004),
+                        new CarDto(
+                                focus.getId(), "Ford", new ModelDto("Focus", null), "Blue", 2012));
+
+        assertIterableEquals(expectedCars, page.getCars());
+        assertEquals(Optional.of(new CarCursor("focus", focus.getId())), page.getNext());
+    }
+
+    @Test
+    void findCarsByMake_CursorSupplied_PageAfterCursorReturned() {
+        // given
+        final CarCursor after = new CarCursor("focus", UUID.randomUUID());
+        final Car kuga = new Car(UUID.randomUUID(), "Ford", "Kuga", "Black", 2020);
+        willReturn(List.of(kuga))
+                .given(mockRepository)
+                .findByMakeAfter("Ford", "focus", after.getId(), LIMIT + 1);
+
+        // when
+        final CarPage page = carService.findCarsByMake("Ford", LIMIT, after, false, DEADLINE);
+
+        // then
+        final CarDto carDto =
+                new CarDto(kuga.getId(), "Ford", new ModelDto("Kuga", null), "Black", 2020);
+        assertIterableEquals(List.of(carDto), page.getCars());
+        assertEquals(Optional.empty(), page.getNext());
+    }
+
     @Test
     void findCarsByMakeAndModel_HappyPath_CarsReturned() {
         // given
         final Car car = new Car(UUID.randomUUID(), "Hyundai", "i20", "Red", 2004);
         willReturn(List.of(car))
                 .given(mockRepository)
-                .findByMakeAAndModel(car.getMake(), car.getModel());
+                .findByMakeAAndModel(car.getMake(), car.getModel(), LIMIT + 1);
 
-        final Collection<SoundsLikeResponseV1> homophones =
-                List.of(
-                        new SoundsLikeResponseV1("eh", 95, 1),
-                        new SoundsLikeResponseV1("uhh", 95, 1));
-        willReturn(homophones).given(mockDatamuseRestApi).soundsLike(car.getModel());
+        willReturn(CompletableFuture.completedFuture("eh, uhh"))
+                .given(mockHomophoneService)
+                .homophonesAsync(car.getModel(), DEADLINE);
 
         // when
         final Collection<CarDto> carsByMake =
-                carService.findCarsByMakeAndModel(car.getMake(), car.getModel());
+                carService
+                        .findCarsByMakeAndModel(
+                                car.getMake(), car.getModel(), LIMIT, null, true, DEADLINE)
+                        .getCars();
 
         // then
         final CarDto carDto =
@@ -325,18 +635,196 @@ class CarServiceTest {
         assertIterableEquals(List.of(carDto), carsByMake);
     }
 
+    @Test
+    void findCarsByMakeAndModel_HomophonesExcluded_HomophonesNotLookedUp() {
+        // given
+        final Car car = new Car(UUID.randomUUID(), "Ford", "Puma", "Grey", 2021);
+        willReturn(List.of(car))
+                .given(mockRepository)
+                .findByMakeAAndModel("Ford", "Puma", LIMIT + 1);
+
+        // when
+        final Collection<CarDto> carsByMake =
+                carService
+                        .findCarsByMakeAndModel("Ford", "Puma", LIMIT, null, false, DEADLINE)
+                        .getCars();
+
+        // then
+        final CarDto carDto =
+                new CarDto(car.getId(), "Ford", new ModelDto("Puma", null), "Grey", 2021);
+        assertIterableEquals(List.of(carDto), carsByMake);
+        verifyNoInteractions(mockHomophoneService);
+    }
+
+    @Test
+    void findCarsByMakeAndModel_CursorSupplied_PageAfterCursorReturned() {
+        // given
+        final CarCursor after = new CarCursor("puma", UUID.randomUUID());
+        final Car red = new Car(UUID.randomUUID(), "Ford", "Puma", "Red", 2021);
+        final Car grey = new Car(UUID.randomUUID(), "Ford", "Puma", "Grey", 2021);
+        willReturn(List.of(red, grey))
+                .given(mockRepository)
+                .findByMakeAAndModelAfter("Ford", "Puma", after.getId(), 2);
+
+        // when
+        final CarPage page =
+                carService.findCarsByMakeAndModel("Ford", "Puma", 1, after, false, DEADLINE);
+
+        // then
+        final CarDto carDto =
+                new CarDto(red.getId(), "Ford", new ModelDto("Puma", null), "Red", 2021);
+        assertIterableEquals(List.of(carDto), page.getCars());
+        assertEquals(Optional.of(new CarCursor("puma", red.getId())), page.getNext());
+    }
+
     @Test
     void findCarsByMakeAndModel_NoCarsFound_EmptyCollectionReturned() {
         // given
         final String make = "Ford";
         final String model = "Fiesta";
 
-        willReturn(List.of()).given(mockRepository).findByMakeAAndModel(make, model);
+        willReturn(List.of()).given(mockRepository).findByMakeAAndModel(make, model, LIMIT + 1);
 
         // when
-        final Collection<CarDto> carsByMake = carService.findCarsByMakeAndModel(make, model);
+        final Collection<CarDto> carsByMake =
+                carService
+                        .findCarsByMakeAndModel(make, model, LIMIT, null, true, DEADLINE)
+                        .getCars();
 
         // then
         assertIterableEquals(List.of(), carsByMake);
     }
+
+    @Test
+    void streamCarsByMake_MoreCarsThanBatch_CarsStreamedInBatches() {
+        // given
+        final List<Car> cars =
+                IntStream.range(0, 150)
+                        .mapToObj(i -> new Car(UUID.randomUUID(), "Ford", "Focus", "Blue", 2010))
+                        .collect(Collectors.toList());
+        final AtomicBoolean closed = new AtomicBoolean();
+        willReturn(cars.stream().onClose(() -> closed.set(true)))
+                .given(mockRepository)
+                .streamByMake("Ford");
+
+        willReturn(Map.of("Focus", "fokus"))
+                .given(mockHomophoneService)
+                .homophones(eq(Set.of("Focus")), any(Instant.class));
+
+        // when
+        final List<Collection<CarDto>> batches = new ArrayList<>();
+        carService.streamCarsByMake("Ford", true, TIMEOUT, batches::add);
+
+        // then
+        assertEquals(
+                List.of(100, 50),
+                batches.stream().map(Collection::size).collect(Collectors.toList()));
+
+        final List<CarDto> carDtos =
+                batches.stream().flatMap(Collection::stream).collect(Collectors.toList());
+        assertEquals(
+                cars.stream().map(Car::getId).collect(Collectors.toList()),
+                carDtos.stream().map(CarDto::getId).collect(Collectors.toList()));
+        assertTrue(
+                carDtos.stream().allMatch(car -> "fokus".equals(car.getModel().getHomophones())));
+
+        // a lookup per batch, the stream is read in a read only transaction & closed afterwards
+        verify(mockHomophoneService, times(2)).homophones(anySet(), any(Instant.class));
+        verify(mockTransactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void streamCarsByMake_HomophonesExcluded_HomophonesNotLookedUp() {
+        // given
+        final Car car = new Car(UUID.randomUUID(), "Ford", "Puma", "Grey", 2021);
+        willReturn(Stream.of(car)).given(mockRepository).streamByMake("Ford");
+
+        // when
+        final List<Collection<CarDto>> batches = new ArrayList<>();
+        carService.streamCarsByMake("Ford", false, TIMEOUT, batches::add);
+
+        // then
+        final CarDto carDto =
+                new CarDto(car.getId(), "Ford", new ModelDto("Puma", null), "Grey", 2021);
+        assertEquals(List.of(List.of(carDto)), batches);
+        verifyNoInteractions(mockHomophoneService);
+    }
+
+    @Test
+    void streamCarsByMake_NoCarsFound_NothingStreamed() {
+        // given
+        willReturn(Stream.empty()).given(mockRepository).streamByMake("Ford");
+
+        // when
+        final List<Collection<CarDto>> batches = new ArrayList<>();
+        carService.streamCarsByMake("Ford", true, TIMEOUT, batches::add);
+
+        // then
+        assertEquals(List.of(), batches);
+    }
+
+    @Test
+    void streamCarsByMakeAndModel_HappyPath_HomophonesLookedUpOnce() {
+        // given
+        final Car red = new Car(UUID.randomUUID(), "Ford", "Puma", "Red", 2021);
+        final Car grey = new Car(UUID.randomUUID(), "Ford", "Puma", "Grey", 2021);
+        willReturn(Stream.of(red, grey))
+                .given(mockRepository)
+                .streamByMakeAndModel("Ford", "Puma");
+
+        willReturn(CompletableFuture.completedFuture("puma, pooma"))
+                .given(mockHomophoneService)
+                .homophonesAsync(eq("Puma"), any(Instant.class));
+
+        // when
+        final List<Collection<CarDto>> batches = new ArrayList<>();
+        carService.streamCarsByMakeAndModel("Ford", "Puma", true, TIMEOUT, batches::add);
+
+        // then
+        final ModelDto modelDto = new ModelDto("Puma", "puma, pooma");
+        assertEquals(
+                List.of(
+                        List.of(
+                                new CarDto(red.getId(), "Ford", modelDto, "Red", 2021),
+                                new CarDto(grey.getId(), "Ford", modelDto, "Grey", 2021))),
+                batches);
+        verify(mockHomophoneService).homophonesAsync(eq("Puma"), any(Instant.class));
+    }
+
+    @Test
+    void findCarsSoundingLike_HappyPath_CarsReturned() {
+        // given
+        final Car car = new Car(UUID.randomUUID(), "Ford", "Focus", "Blue", 2010);
+        willReturn(List.of(car.getId())).given(mockSoundsLikeIndex).find("fokus", LIMIT);
+        willReturn(List.of(car)).given(mockRepository).findAllById(List.of(car.getId()));
+
+        willReturn(Map.of("Focus", "fokus"))
+                .given(mockHomophoneService)
+                .homophones(Set.of("Focus"), DEADLINE);
+
+        // when
+        final Collection<CarDto> cars =
+                carService.findCarsSoundingLike("fokus", LIMIT, true, DEADLINE);
+
+        // then
+        final CarDto carDto =
+                new CarDto(car.getId(), "Ford", new ModelDto("Focus", "fokus"), "Blue", 2010);
+        assertIterableEquals(List.of(carDto), cars);
+    }
+
+    @Test
+    void findCarsSoundingLike_NoMatches_DbNotQueried() {
+        // given
+        willReturn(List.of()).given(mockSoundsLikeIndex).find("xyzzy", LIMIT);
+
+        // when
+        final Collection<CarDto> cars =
+                carService.findCarsSoundingLike("xyzzy", LIMIT, true, DEADLINE);
+
+        // then
+        assertIterableEquals(List.of(), cars);
+        verify(mockRepository, never()).findAllById(any());
+        verifyNoInteractions(mockHomophoneService);
+    }
 }
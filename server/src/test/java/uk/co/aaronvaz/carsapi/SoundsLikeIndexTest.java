@@ -0,0 +1,151 @@
+package uk.co.aaronvaz.carsapi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.willReturn;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import uk.co.aaronvaz.carsapi.model.db.Car;
+
+class SoundsLikeIndexTest {
+
+    private final CarRepository mockRepository = mock(CarRepository.class);
+
+    private static final int LIMIT = 10;
+
+    private final SoundsLikeIndex index =
+            new SoundsLikeIndex(mockRepository, mock(PlatformTransactionManager.class));
+
+    @Test
+    void find_CarsStoredOnStartup_CarsFound() {
+        // given
+        final Car focus = new Car(UUID.randomUUID(), "Ford", "Focus", "Blue", 2010);
+        final Car kuga = new Car(UUID.randomUUID(), "Ford", "Kuga", "Black", 2020);
+        willReturn(Stream.of(idAndModel(focus), idAndModel(kuga)))
+                .given(mockRepository)
+                .streamIdsAndModels();
+
+        // when
+        index.run(null);
+
+        // then
+        assertEquals(List.of(focus.getId()), index.find("fokus", LIMIT));
+        assertEquals(List.of(kuga.getId()), index.find("kooga", LIMIT));
+    }
+
+    @Test
+    void find_CarPut_FoundByMisspelledModelIgnoringCase() {
+        // given
+        final UUID id = UUID.randomUUID();
+
+        // when
+        index.put(id, "Puma");
+
+        // then
+        assertEquals(List.of(id), index.find("POOMA", LIMIT));
+    }
+
+    @Test
+    void find_CarsShareModel_AllCarsFound() {
+        // given
+        final UUID red = UUID.randomUUID();
+        final UUID blue = UUID.randomUUID();
+
+        // when
+        index.put(red, "Fiesta");
+        index.put(blue, "Fiesta");
+
+        // then
+        assertEquals(
+                Stream.of(red, blue).sorted().collect(Collectors.toList()),
+                index.find("fiesta", LIMIT));
+    }
+
+    @Test
+    void find_ModelChanged_OnlyFoundByNewModel() {
+        // given
+        final UUID id = UUID.randomUUID();
+        index.put(id, "Focus");
+
+        // when
+        index.put(id, "Mondeo");
+
+        // then
+        assertEquals(List.of(), index.find("fokus", LIMIT));
+        assertEquals(List.of(id), index.find("mondayo", LIMIT));
+    }
+
+    @Test
+    void find_CarRemoved_NotFound() {
+        // given
+        final UUID id = UUID.randomUUID();
+        index.put(id, "Kuga");
+
+        // when
+        index.remove(id);
+
+        // then
+        assertEquals(List.of(), index.find("kuga", LIMIT));
+    }
+
+    @Test
+    void find_NoPhoneticCode_NothingFound() {
+        // given
+        index.put(UUID.randomUUID(), "208");
+
+        // when
+        final List<UUID> ids = index.find("208", LIMIT);
+
+        // then
+        assertEquals(List.of(), ids);
+    }
+
+    @Test
+    void find_MoreMatchesThanLimit_FirstIdsReturnedInOrder() {
+        // given
+        final List<UUID> ids =
+                Stream.generate(UUID::randomUUID)
+                        .limit(LIMIT + 5)
+                        .sorted()
+                        .collect(Collectors.toList());
+        ids.forEach(id -> index.put(id, "Focus"));
+
+        // when
+        final List<UUID> found = index.find("fokus", LIMIT);
+
+        // then
+        assertEquals(ids.subList(0, LIMIT), found);
+    }
+
+    @Test
+    void find_ModelWithAlternateCode_CarFoundOnce() {
+        // given
+        final UUID id = UUID.randomUUID();
+        index.put(id, "Schmidt");
+
+        // when
+        final List<UUID> found = index.find("Schmidt", LIMIT);
+
+        // then
+        assertEquals(List.of(id), found);
+    }
+
+    private static CarRepository.IdAndModel idAndModel(final Car car) {
+        return new CarRepository.IdAndModel() {
+            @Override
+            public UUID getId() {
+                return car.getId();
+            }
+
+            @Override
+            public String getModel() {
+                return car.getModel();
+            }
+        };
+    }
+}
@@ -0,0 +1,251 @@
+package uk.co.aaronvaz.carsapi.datamuse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+class ConcurrencyLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void executeAsync_LimitReached_Rejected() {
+        // given
+        final ConcurrencyLimiter limiter = limiter(Map.of());
+        limiter.executeAsync(CompletableFuture::new);
+        limiter.executeAsync(CompletableFuture::new);
+
+        // when
+        final CompletableFuture<String> result =
+                limiter.executeAsync(() -> CompletableFuture.completedFuture("focus"));
+
+        // then
+        final ExecutionException e =
+                assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof ConcurrencyLimiter.LimitExceededException);
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(1, meterRegistry.counter(ConcurrencyLimiter.REJECTIONS_METRIC).count());
+    }
+
+    @Test
+    void executeAsync_CallCompletes_SlotReleased() throws Exception {
+        // given
+        final ConcurrencyLimiter limiter = limiter(Map.of());
+        final CompletableFuture<String> call = new CompletableFuture<>();
+        limiter.executeAsync(() -> call);
+
+        // when
+        call.complete("focus");
+
+        // then
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(
+                "fiesta",
+                limiter.executeAsync(() -> CompletableFuture.completedFuture("fiesta")).get());
+    }
+
+    @Test
+    void execute_LimitReached_RejectedWithoutCalling() {
+        // given
+        final ConcurrencyLimiter limiter =
+                limiter(Map.of("datamuse.api.concurrency-limit.initial-limit", "1"));
+        limiter.executeAsync(CompletableFuture::new);
+
+        // then
+        assertThrows(
+                ConcurrencyLimiter.LimitExceededException.class,
+                () ->
+                        limiter.execute(
+                                () -> {
+                                    throw new IllegalStateException("should not be called");
+                                }));
+    }
+
+    @Test
+    void execute_FastCallsUsingLimit_LimitIncreased() {
+        // given
+        final ConcurrencyLimiter limiter =
+                limiter(Map.of("datamuse.api.concurrency-limit.initial-limit", "1"));
+
+        // when
+        limiter.execute(() -> "focus");
+        limiter.execute(() -> "fiesta");
+
+        // then
+        assertEquals(3, limiter.getLimit());
+        assertEquals(3.0, meterRegistry.get(ConcurrencyLimiter.LIMIT_METRIC).gauge().value(), 0.0);
+    }
+
+    @Test
+    void execute_LimitBarelyUsed_LimitUnchanged() {
+        // given
+        final ConcurrencyLimiter limiter =
+                limiter(Map.of("datamuse.api.concurrency-limit.initial-limit", "10"));
+
+        // when
+        limiter.execute(() -> "focus");
+
+        // then
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void execute_ServerError_LimitDecreased() {
+        // given
+        final ConcurrencyLimiter limiter =
+                limiter(Map.of("datamuse.api.concurrency-limit.initial-limit", "10"));
+
+        // when
+        assertThrows(
+                HttpServerErrorException.class,
+                () ->
+                        limiter.execute(
+                                () -> {
+                                    throw new HttpServerErrorException(
+                                            HttpStatus.SERVICE_UNAVAILABLE);
+                                }));
+
+        // then
+        assertEquals(5, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void execute_TooManyRequests_LimitDecreased() {
+        // given
+        final ConcurrencyLimiter limiter =
+                limiter(Map.of("datamuse.api.concurrency-limit.initial-limit", "10"));
+
+        // when
+        assertThrows(
+                HttpClientErrorException.class,
+                () ->
+                        limiter.execute(
+                                () -> {
+                                    throw new HttpClientErrorException(
+                                            HttpStatus.TOO_MANY_REQUESTS);
+                                }));
+
+        // then
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    void execute_ClientError_LimitUnchanged() {
+        // given
+        final ConcurrencyLimiter limiter =
+                limiter(Map.of("datamuse.api.concurrency-limit.initial-limit", "10"));
+
+        // when
+        assertThrows(
+                HttpClientErrorException.class,
+                () ->
+                        limiter.execute(
+                                () -> {
+                                    throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+                                }));
+
+        // then
+        assertEquals(10, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void executeAsync_ClientErrors_LimitUnchanged() {
+        // given
+        final ConcurrencyLimiter limiter =
+                limiter(Map.of("datamuse.api.concurrency-limit.initial-limit", "10"));
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            limiter.executeAsync(
+                    () ->
+                            CompletableFuture.failedFuture(
+                                    new HttpClientErrorException(HttpStatus.NOT_FOUND)));
+        }
+
+        // then
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void execute_CallSlow_LimitDecreased() {
+        // given
+        final ConcurrencyLimiter limiter =
+                limiter(Map.of("datamuse.api.concurrency-limit.initial-limit", "10"));
+
+        // when
+        limiter.execute(
+                () -> {
+                    nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+                    return "focus";
+                });
+
+        // then
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    void executeAsync_RepeatedFailures_LimitNeverBelowMin() {
+        // given
+        final ConcurrencyLimiter limiter = limiter(Map.of());
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            limiter.executeAsync(
+                    () -> CompletableFuture.failedFuture(new HttpTimeoutException("timed out")));
+        }
+
+        // then
+        assertEquals(1, limiter.getLimit());
+    }
+
+    @Test
+    void executeAsync_Disabled_NeverRejected() {
+        // given
+        final ConcurrencyLimiter limiter =
+                limiter(Map.of("datamuse.api.concurrency-limit.enabled", "false"));
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            limiter.executeAsync(CompletableFuture::new);
+        }
+
+        // then
+        assertEquals("focus", limiter.execute(() -> "focus"));
+    }
+
+    private ConcurrencyLimiter limiter(final Map<String, String> settings) {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("datamuse.api.concurrency-limit.initial-limit", "2");
+        properties.put("datamuse.api.concurrency-limit.backoff-ratio", "0.5");
+        properties.put("datamuse.api.concurrency-limit.latency-threshold", "1s");
+        properties.putAll(settings);
+
+        return new ConcurrencyLimiter(
+                new Binder(new MapConfigurationPropertySource(properties))
+                        .bindOrCreate("datamuse.api", Properties.class)
+                        .getConcurrencyLimit(),
+                meterRegistry,
+                nanos::get);
+    }
+}
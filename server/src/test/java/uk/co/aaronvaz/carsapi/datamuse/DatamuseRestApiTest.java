@@ -1,71 +1,382 @@
 package uk.co.aaronvaz.carsapi.datamuse;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.willReturn;
-import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.client.ExpectedCount.times;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withException;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.HttpServerErrorException;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 import uk.co.aaronvaz.carsapi.datamuse.model.SoundsLikeResponseV1;
 
 class DatamuseRestApiTest {
-    private final RestTemplate mockRestTemplate = mock(RestTemplate.class);
+    private static final String BASE_URL = "http://datamuse";
 
-    private final DatamuseRestApi restApiV1 = new DatamuseRestApi(mockRestTemplate);
+    private static final String RESPONSE =
+            "[{\"word\":\"focus\",\"score\":98,\"numSyllables\":2},"
+                    + "{\"word\":\"fokus\",\"score\":99,\"numSyllables\":2},"
+                    + "{\"word\":\"phocus\",\"score\":97,\"numSyllables\":2}]";
+
+    private final RestTemplate restTemplate = new RestTemplateBuilder().rootUri(BASE_URL).build();
+
+    private final MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+
+    private final HttpClient mockHttpClient = mock(HttpClient.class);
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("datamuse");
+
+    private final DatamuseRestApi restApiV1 = restApi(Map.of());
+
+    @Test
+    void soundLike_HappyPath_TopResultsRequestedAndRankedByScore() {
+        // given
+        server.expect(requestTo(BASE_URL + "/words?sl=focus&max=5"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess(RESPONSE, MediaType.APPLICATION_JSON));
+
+        // when
+        final Collection<SoundsLikeResponseV1> responseItems = restApiV1.soundsLike("focus");
+
+        // then
+        assertIterableEquals(
+                List.of(
+                        new SoundsLikeResponseV1("fokus", 99, 2),
+                        new SoundsLikeResponseV1("focus", 98, 2),
+                        new SoundsLikeResponseV1("phocus", 97, 2)),
+                responseItems);
+        server.verify();
+    }
+
+    @Test
+    void soundsLike_MoreResultsThanMax_ParsingStopsAtMax() {
+        // given
+        final DatamuseRestApi restApi = restApi(Map.of("datamuse.api.max-results", "2"));
+        server.expect(requestTo(BASE_URL + "/words?sl=focus&max=2"))
+                .andRespond(withSuccess(RESPONSE, MediaType.APPLICATION_JSON));
+
+        // when
+        final Collection<SoundsLikeResponseV1> responseItems = restApi.soundsLike("focus");
+
+        // then
+        assertIterableEquals(
+                List.of(
+                        new SoundsLikeResponseV1("fokus", 99, 2),
+                        new SoundsLikeResponseV1("focus", 98, 2)),
+                responseItems);
+    }
 
     @Test
-    void soundLike_HappyPath_ResponseReceived() {
+    void soundsLike_RankByScoreDisabled_ResponseOrderKept() {
+        // given
+        final DatamuseRestApi restApi = restApi(Map.of("datamuse.api.rank-by-score", "false"));
+        server.expect(requestTo(BASE_URL + "/words?sl=focus&max=5"))
+                .andRespond(withSuccess(RESPONSE, MediaType.APPLICATION_JSON));
+
+        // when
+        final Collection<SoundsLikeResponseV1> responseItems = restApi.soundsLike("focus");
+
+        // then
+        assertIterableEquals(
+                List.of(
+                        new SoundsLikeResponseV1("focus", 98, 2),
+                        new SoundsLikeResponseV1("fokus", 99, 2),
+                        new SoundsLikeResponseV1("phocus", 97, 2)),
+                responseItems);
+    }
+
+    @ValueSource(strings = {"[]", ""})
+    @ParameterizedTest
+    void soundsLike_EmptyBody_EmptyCollection(final String body) {
         // given
-        final String input = "test";
+        server.expect(requestTo(BASE_URL + "/words?sl=giraffe&max=5"))
+                .andRespond(withSuccess(body, MediaType.APPLICATION_JSON));
+
+        // when
+        final Collection<SoundsLikeResponseV1> responseItems = restApiV1.soundsLike("giraffe");
 
-        final SoundsLikeResponseV1 response = new SoundsLikeResponseV1("test", 100, 1);
-        willReturn(new SoundsLikeResponseV1[] {response})
-                .given(mockRestTemplate)
-                .getForObject("/words?sl=" + input, SoundsLikeResponseV1[].class);
+        // then
+        assertTrue(responseItems.isEmpty());
+    }
+
+    @ValueSource(ints = {400, 404, 500, 503})
+    @ParameterizedTest
+    void soundsLike_ErrorResponses_EmptyCollection(final int statusCode) {
+        // given
+        server.expect(requestTo(BASE_URL + "/words?sl=ball&max=5"))
+                .andRespond(withStatus(HttpStatus.valueOf(statusCode)));
 
         // when
-        final Collection<SoundsLikeResponseV1> responseItems = restApiV1.soundsLike(input);
+        final Collection<SoundsLikeResponseV1> responseItems = restApiV1.soundsLike("ball");
 
         // then
-        assertIterableEquals(List.of(response), responseItems);
+        assertTrue(responseItems.isEmpty());
     }
 
     @Test
-    void soundsLike_EmptyBody_EmptyCollection() {
+    void soundsLike_RequestFails_EmptyCollection() {
         // given
-        final String input = "giraffe";
-        willReturn(new SoundsLikeResponseV1[0])
-                .given(mockRestTemplate)
-                .getForObject("/words?sl=" + input, SoundsLikeResponseV1[].class);
+        server.expect(requestTo(BASE_URL + "/words?sl=ball&max=5"))
+                .andRespond(withException(new IOException("connection reset")));
 
         // when
-        final Collection<SoundsLikeResponseV1> responseItems = restApiV1.soundsLike(input);
+        final Collection<SoundsLikeResponseV1> responseItems = restApiV1.soundsLike("ball");
 
         // then
         assertTrue(responseItems.isEmpty());
     }
 
-    @ValueSource(classes = {HttpClientErrorException.class, HttpServerErrorException.class})
+    @Test
+    void soundsLike_CircuitBreakerOpen_RejectedWithoutCallingApi() {
+        // given
+        circuitBreaker.transitionToOpenState();
+
+        // when
+        final Executable soundsLike = () -> restApiV1.soundsLike("car");
+
+        // then
+        assertThrows(DatamuseRestApi.CallRejectedException.class, soundsLike);
+        server.verify();
+    }
+
+    @Test
+    void soundsLike_ServerErrors_CircuitBreakerOpened() {
+        // given
+        final int calls = circuitBreaker.getCircuitBreakerConfig().getMinimumNumberOfCalls();
+        server.expect(times(calls), requestTo(BASE_URL + "/words?sl=bus&max=5"))
+                .andRespond(withServerError());
+
+        // when
+        for (int i = 0; i < calls; i++) {
+            restApiV1.soundsLike("bus");
+        }
+
+        // then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void soundsLike_ClientErrors_CircuitBreakerStaysClosed() {
+        // given
+        final int calls = circuitBreaker.getCircuitBreakerConfig().getMinimumNumberOfCalls();
+        server.expect(times(calls), requestTo(BASE_URL + "/words?sl=van&max=5"))
+                .andRespond(withStatus(HttpStatus.BAD_REQUEST));
+
+        // when
+        for (int i = 0; i < calls; i++) {
+            restApiV1.soundsLike("van");
+        }
+
+        // then
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void soundsLikeAsync_HappyPath_ResponseReceived() {
+        // given
+        final String input = "fiesta";
+        willReturn(response(200, "[{\"word\":\"fiesta\",\"score\":100,\"numSyllables\":3}]"))
+                .given(mockHttpClient)
+                .sendAsync(any(), any());
+
+        // when
+        final Collection<SoundsLikeResponseV1> responseItems =
+                restApiV1.soundsLikeAsync(input).join();
+
+        // then
+        assertIterableEquals(List.of(new SoundsLikeResponseV1("fiesta", 100, 3)), responseItems);
+
+        final ArgumentCaptor<HttpRequest> captor = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(mockHttpClient).sendAsync(captor.capture(), any());
+        assertEquals("http://datamuse/words?sl=fiesta&max=5", captor.getValue().uri().toString());
+    }
+
+    @ValueSource(ints = {400, 404, 500, 503})
     @ParameterizedTest
-    void soundsLike_ErrorResponses_EmptyCollection(final Class<? extends Throwable> exception) {
+    void soundsLikeAsync_ErrorResponses_EmptyCollection(final int statusCode) {
+        // given
+        willReturn(response(statusCode, "")).given(mockHttpClient).sendAsync(any(), any());
+
+        // when
+        final Collection<SoundsLikeResponseV1> responseItems =
+                restApiV1.soundsLikeAsync("kuga").join();
+
+        // then
+        assertTrue(responseItems.isEmpty());
+    }
+
+    @Test
+    void soundsLikeAsync_RequestTimesOut_EmptyCollection() {
         // given
-        final String input = "ball";
-        willThrow(exception)
-                .given(mockRestTemplate)
-                .getForObject("/words?sl=" + input, SoundsLikeResponseV1[].class);
+        willReturn(CompletableFuture.failedFuture(new HttpTimeoutException("request timed out")))
+                .given(mockHttpClient)
+                .sendAsync(any(), any());
 
         // when
-        final Collection<SoundsLikeResponseV1> responseItems = restApiV1.soundsLike(input);
+        final Collection<SoundsLikeResponseV1> responseItems =
+                restApiV1.soundsLikeAsync("puma").join();
 
         // then
         assertTrue(responseItems.isEmpty());
     }
+
+    @Test
+    void soundsLikeAsync_CircuitBreakerOpen_RejectedWithoutCallingApi() {
+        // given
+        circuitBreaker.transitionToOpenState();
+
+        // when
+        final CompletableFuture<Collection<SoundsLikeResponseV1>> responseItems =
+                restApiV1.soundsLikeAsync("mondeo");
+
+        // then
+        final CompletionException e = assertThrows(CompletionException.class, responseItems::join);
+        assertTrue(e.getCause() instanceof DatamuseRestApi.CallRejectedException);
+        verify(mockHttpClient, never()).sendAsync(any(), any());
+    }
+
+    @Test
+    void soundsLikeAsync_ServerErrors_CircuitBreakerOpened() {
+        // given
+        willReturn(response(500, "")).given(mockHttpClient).sendAsync(any(), any());
+
+        // when
+        final int calls = circuitBreaker.getCircuitBreakerConfig().getMinimumNumberOfCalls();
+        for (int i = 0; i < calls; i++) {
+            restApiV1.soundsLikeAsync("bus").join();
+        }
+
+        // then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void soundsLikeAsync_MoreResultsThanMax_ParsingStopsAtMax() {
+        // given
+        final DatamuseRestApi restApi = restApi(Map.of("datamuse.api.max-results", "1"));
+        willReturn(response(200, RESPONSE)).given(mockHttpClient).sendAsync(any(), any());
+
+        // when
+        final Collection<SoundsLikeResponseV1> responseItems =
+                restApi.soundsLikeAsync("focus").join();
+
+        // then
+        assertIterableEquals(List.of(new SoundsLikeResponseV1("focus", 98, 2)), responseItems);
+    }
+
+    @Test
+    void soundsLikeAsync_ConcurrencyLimitReached_RejectedWithoutCallingApi() {
+        // given
+        final DatamuseRestApi restApi =
+                restApi(Map.of("datamuse.api.concurrency-limit.initial-limit", "1"));
+        willReturn(new CompletableFuture<>()).given(mockHttpClient).sendAsync(any(), any());
+        restApi.soundsLikeAsync("focus");
+
+        // when
+        final CompletableFuture<Collection<SoundsLikeResponseV1>> responseItems =
+                restApi.soundsLikeAsync("fiesta");
+
+        // then
+        final CompletionException e = assertThrows(CompletionException.class, responseItems::join);
+        assertTrue(e.getCause() instanceof DatamuseRestApi.CallRejectedException);
+        verify(mockHttpClient).sendAsync(any(), any());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void soundsLikeAsync_HedgingEnabledAndFirstRequestSlow_HedgedResponseReturned() {
+        // given
+        final DatamuseRestApi restApi =
+                restApi(
+                        Map.of(
+                                "datamuse.api.hedging.enabled",
+                                "true",
+                                "datamuse.api.hedging.min-delay",
+                                "10ms",
+                                "datamuse.api.hedging.max-rate",
+                                "100"));
+        willReturn(response(200, RESPONSE)).given(mockHttpClient).sendAsync(any(), any());
+        for (int i = 0; i < Hedger.MIN_SAMPLES; i++) {
+            restApi.soundsLikeAsync("focus" + i).join();
+        }
+
+        willReturn(new CompletableFuture<>(), response(200, RESPONSE))
+                .given(mockHttpClient)
+                .sendAsync(any(), any());
+
+        // when
+        final Collection<SoundsLikeResponseV1> responseItems =
+                restApi.soundsLikeAsync("focus").join();
+
+        // then
+        // the first request never answers, so only the hedge can have completed the lookup
+        assertEquals(3, responseItems.size());
+    }
+
+    private DatamuseRestApi restApi(final Map<String, String> settings) {
+        final Map<String, String> properties = new HashMap<>(settings);
+        properties.put("datamuse.api.v1-base-url", BASE_URL);
+
+        final Properties datamuseProperties =
+                new Binder(new MapConfigurationPropertySource(properties))
+                        .bindOrCreate("datamuse.api", Properties.class);
+
+        return new DatamuseRestApi(
+                restTemplate,
+                mockHttpClient,
+                objectMapper,
+                circuitBreaker,
+                new ConcurrencyLimiter(
+                        datamuseProperties.getConcurrencyLimit(), new SimpleMeterRegistry()),
+                new Hedger(datamuseProperties.getHedging(), new SimpleMeterRegistry()),
+                datamuseProperties);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CompletableFuture<HttpResponse<byte[]>> response(
+            final int statusCode, final String body) {
+        final HttpResponse<byte[]> response = mock(HttpResponse.class);
+        willReturn(statusCode).given(response).statusCode();
+        willReturn(body.getBytes()).given(response).body();
+        return CompletableFuture.completedFuture(response);
+    }
 }
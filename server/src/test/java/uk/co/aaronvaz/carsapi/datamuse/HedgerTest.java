@@ -0,0 +1,226 @@
+package uk.co.aaronvaz.carsapi.datamuse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+class HedgerTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /** Hedges scheduled by the hedger, only started when the test runs them */
+    private final List<Runnable> scheduled = new ArrayList<>();
+
+    private final List<Duration> scheduledDelays = new ArrayList<>();
+
+    private final Scheduler scheduler =
+            (executor, command, delay, unit) -> {
+                scheduled.add(command);
+                scheduledDelays.add(Duration.ofNanos(unit.toNanos(delay)));
+                return CompletableFuture.completedFuture(null);
+            };
+
+    @Test
+    void execute_Disabled_CalledOnce() {
+        // given
+        final Hedger hedger = hedger(Map.of("datamuse.api.hedging.enabled", "false"));
+        final AtomicInteger calls = new AtomicInteger();
+
+        // when
+        final CompletableFuture<String> result =
+                hedger.execute(
+                        () -> {
+                            calls.incrementAndGet();
+                            return new CompletableFuture<>();
+                        });
+
+        // then
+        assertFalse(result.isDone());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_NotEnoughSamples_NotHedged() {
+        // given
+        final Hedger hedger = hedger(Map.of());
+        final AtomicInteger calls = new AtomicInteger();
+
+        // when
+        hedger.execute(
+                () -> {
+                    calls.incrementAndGet();
+                    return new CompletableFuture<>();
+                });
+
+        // then
+        assertEquals(Duration.ZERO, hedger.getDelay());
+        assertTrue(scheduled.isEmpty());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_LatenciesRecorded_DelayIsPercentile() {
+        // given
+        final Hedger hedger = hedger(Map.of("datamuse.api.hedging.percentile", "90"));
+
+        // when
+        for (int i = 1; i <= 100; i++) {
+            final long latency = Duration.ofMillis(i).toNanos();
+            hedger.execute(
+                    () -> {
+                        nanos.addAndGet(latency);
+                        return CompletableFuture.completedFuture("fiesta");
+                    });
+        }
+
+        // then
+        assertEquals(Duration.ofMillis(90), hedger.getDelay());
+    }
+
+    @Test
+    void execute_PercentileBelowMinDelay_MinDelayUsed() {
+        // given
+        final Hedger hedger = hedger(Map.of("datamuse.api.hedging.min-delay", "50ms"));
+
+        // when
+        warmUp(hedger);
+
+        // then
+        assertEquals(Duration.ofMillis(50), hedger.getDelay());
+    }
+
+    @Test
+    void execute_FirstCallSlow_HedgeWins() throws Exception {
+        // given
+        final Hedger hedger = hedger(Map.of());
+        warmUp(hedger);
+        final AtomicInteger calls = new AtomicInteger();
+
+        // when
+        final CompletableFuture<String> result =
+                hedger.execute(
+                        () ->
+                                calls.incrementAndGet() == 1
+                                        ? new CompletableFuture<>()
+                                        : CompletableFuture.completedFuture("fokus"));
+        assertFalse(result.isDone());
+        runScheduled();
+
+        // then
+        assertEquals(List.of(hedger.getDelay()), scheduledDelays);
+        assertEquals("fokus", result.get(5, TimeUnit.SECONDS));
+        assertEquals(2, calls.get());
+        assertEquals(1, meterRegistry.counter(Hedger.HEDGES_METRIC).count());
+    }
+
+    @Test
+    void execute_FirstCallFailsAfterHedge_HedgeResultUsed() throws Exception {
+        // given
+        final Hedger hedger = hedger(Map.of());
+        warmUp(hedger);
+        final CompletableFuture<String> first = new CompletableFuture<>();
+        final CompletableFuture<String> second = new CompletableFuture<>();
+        final AtomicInteger calls = new AtomicInteger();
+
+        // when
+        final CompletableFuture<String> result =
+                hedger.execute(() -> calls.incrementAndGet() == 1 ? first : second);
+        runScheduled();
+        first.completeExceptionally(new IllegalStateException());
+        second.complete("phocus");
+
+        // then
+        assertEquals("phocus", result.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void execute_BothCallsFail_ErrorReturned() throws Exception {
+        // given
+        final Hedger hedger = hedger(Map.of());
+        warmUp(hedger);
+        final CompletableFuture<String> first = new CompletableFuture<>();
+        final CompletableFuture<String> second = new CompletableFuture<>();
+        final AtomicInteger calls = new AtomicInteger();
+
+        // when
+        final CompletableFuture<String> result =
+                hedger.execute(() -> calls.incrementAndGet() == 1 ? first : second);
+        runScheduled();
+        first.completeExceptionally(new IllegalStateException());
+        second.completeExceptionally(new IllegalArgumentException());
+
+        // then
+        final ExecutionException e =
+                assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals(IllegalArgumentException.class, e.getCause().getClass());
+    }
+
+    @Test
+    void execute_NoBudget_NotHedged() {
+        // given
+        final Hedger hedger = hedger(Map.of("datamuse.api.hedging.max-rate", "0"));
+        warmUp(hedger);
+        final AtomicInteger calls = new AtomicInteger();
+
+        // when
+        hedger.execute(
+                () -> {
+                    calls.incrementAndGet();
+                    return new CompletableFuture<>();
+                });
+        runScheduled();
+
+        // then
+        assertEquals(1, calls.get());
+        assertEquals(0, meterRegistry.counter(Hedger.HEDGES_METRIC).count());
+    }
+
+    private Hedger hedger(final Map<String, String> settings) {
+        final Map<String, String> properties = new HashMap<>();
+        properties.put("datamuse.api.hedging.enabled", "true");
+        properties.put("datamuse.api.hedging.min-delay", "10ms");
+        properties.put("datamuse.api.hedging.max-rate", "100");
+        properties.putAll(settings);
+
+        return new Hedger(
+                new Binder(new MapConfigurationPropertySource(properties))
+                        .bindOrCreate("datamuse.api", Properties.class)
+                        .getHedging(),
+                meterRegistry,
+                nanos::get,
+                scheduler);
+    }
+
+    private static void warmUp(final Hedger hedger) {
+        for (int i = 0; i < Hedger.MIN_SAMPLES; i++) {
+            hedger.execute(() -> CompletableFuture.completedFuture("focus"));
+        }
+    }
+
+    /** Start the scheduled hedges as if their delay had passed */
+    private void runScheduled() {
+        final List<Runnable> due = new ArrayList<>(scheduled);
+        scheduled.clear();
+        due.forEach(Runnable::run);
+    }
+}
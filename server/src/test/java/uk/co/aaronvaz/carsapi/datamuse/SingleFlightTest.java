@@ -0,0 +1,166 @@
+package uk.co.aaronvaz.carsapi.datamuse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void execute_ConcurrentCallsForSameKey_CallExecutedOnce() throws Exception {
+        // given
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final CompletableFuture<String> first =
+                CompletableFuture.supplyAsync(
+                        () ->
+                                singleFlight.execute(
+                                        "focus",
+                                        () -> {
+                                            calls.incrementAndGet();
+                                            started.countDown();
+                                            await(release);
+                                            return "fokus";
+                                        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // when
+        final CompletableFuture<String> second = new CompletableFuture<>();
+        final Thread secondCaller =
+                new Thread(
+                        () ->
+                                second.complete(
+                                        singleFlight.execute(
+                                                "focus",
+                                                () -> {
+                                                    calls.incrementAndGet();
+                                                    return "phocus";
+                                                })));
+        secondCaller.start();
+        assertTrue(awaitJoined(secondCaller));
+        release.countDown();
+
+        // then
+        assertEquals("fokus", first.get(5, TimeUnit.SECONDS));
+        assertEquals("fokus", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_PreviousCallCompleted_CallExecutedAgain() {
+        // given
+        final AtomicInteger calls = new AtomicInteger();
+
+        // when
+        singleFlight.execute("fiesta", () -> "fiesta" + calls.incrementAndGet());
+        final String result =
+                singleFlight.execute("fiesta", () -> "fiesta" + calls.incrementAndGet());
+
+        // then
+        assertEquals("fiesta2", result);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void execute_CallFails_ExceptionRethrown() {
+        // when
+        final Executable call =
+                () ->
+                        singleFlight.execute(
+                                "kuga",
+                                () -> {
+                                    throw new IllegalStateException();
+                                });
+
+        // then
+        assertThrows(IllegalStateException.class, call);
+        assertEquals("kuga", singleFlight.execute("kuga", () -> "kuga"));
+    }
+
+    @Test
+    void executeAsync_ConcurrentCallsForSameKey_CallStartedOnce() throws Exception {
+        // given
+        final AtomicInteger calls = new AtomicInteger();
+        final CompletableFuture<String> response = new CompletableFuture<>();
+
+        // when
+        final CompletableFuture<String> first =
+                singleFlight.executeAsync(
+                        "puma",
+                        () -> {
+                            calls.incrementAndGet();
+                            return response;
+                        });
+        final CompletableFuture<String> second =
+                singleFlight.executeAsync(
+                        "puma",
+                        () -> {
+                            calls.incrementAndGet();
+                            return CompletableFuture.completedFuture("pumah");
+                        });
+        response.complete("poomah");
+
+        // then
+        assertEquals("poomah", first.get(5, TimeUnit.SECONDS));
+        assertEquals("poomah", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void executeAsync_CallFails_FutureCompletedExceptionallyAndKeyReleased() {
+        // when
+        final CompletableFuture<String> result =
+                singleFlight.executeAsync(
+                        "ranger",
+                        () -> CompletableFuture.failedFuture(new IllegalStateException()));
+
+        // then
+        final ExecutionException e =
+                assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof IllegalStateException);
+        assertEquals("ranger", singleFlight.execute("ranger", () -> "ranger"));
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Wait for the thread to park on a {@link CompletableFuture}, the only one the second caller
+     * can wait on is the in flight call's
+     *
+     * @return whether the thread parked within 5 seconds
+     */
+    private static boolean awaitJoined(final Thread thread) {
+        final Instant timeout = Instant.now().plus(Duration.ofSeconds(5));
+        while (!(LockSupport.getBlocker(thread) instanceof ForkJoinPool.ManagedBlocker)) {
+            if (Instant.now().isAfter(timeout)) {
+                return false;
+            }
+
+            Thread.onSpinWait();
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,261 @@
+package uk.co.aaronvaz.carsapi.datamuse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.willReturn;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import uk.co.aaronvaz.carsapi.datamuse.model.SoundsLikeResponseV1;
+
+class SoundsLikeCacheTest {
+    private final DatamuseRestApi mockDatamuseRestApi = mock(DatamuseRestApi.class);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Properties properties =
+            new Binder(
+                            new MapConfigurationPropertySource(
+                                    Map.of(
+                                            "datamuse.api.cache.maximum-size",
+                                            "100",
+                                            "datamuse.api.negative-cache.ttl",
+                                            "1m",
+                                            "datamuse.api.negative-cache.max-ttl",
+                                            "3m")))
+                    .bindOrCreate("datamuse.api", Properties.class);
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final SoundsLikeCache soundsLikeCache =
+            new SoundsLikeCache(mockDatamuseRestApi, properties, meterRegistry, nanos::get);
+
+    @Test
+    void soundsLike_FirstLookup_ResponseFetchedFromApi() {
+        // given
+        final String input = "focus";
+        final Collection<SoundsLikeResponseV1> response =
+                List.of(new SoundsLikeResponseV1("focus", 100, 2));
+        willReturn(response).given(mockDatamuseRestApi).soundsLike(input);
+
+        // when
+        final Collection<SoundsLikeResponseV1> responseItems = soundsLikeCache.soundsLike(input);
+
+        // then
+        assertIterableEquals(response, responseItems);
+        verify(mockDatamuseRestApi).soundsLike(input);
+    }
+
+    @Test
+    void soundsLike_RepeatedLookup_ResponseServedFromCache() {
+        // given
+        final String input = "fiesta";
+        final Collection<SoundsLikeResponseV1> response =
+                List.of(new SoundsLikeResponseV1("fiesta", 100, 3));
+        willReturn(response).given(mockDatamuseRestApi).soundsLike(input);
+
+        // when
+        soundsLikeCache.soundsLike(input);
+        final Collection<SoundsLikeResponseV1> responseItems = soundsLikeCache.soundsLike(input);
+
+        // then
+        assertIterableEquals(response, responseItems);
+        verify(mockDatamuseRestApi, times(1)).soundsLike(input);
+    }
+
+    @Test
+    void soundsLikeAsync_FirstLookup_ResponseFetchedFromAsyncApi() {
+        // given
+        final String input = "puma";
+        final Collection<SoundsLikeResponseV1> response =
+                List.of(new SoundsLikeResponseV1("pumah", 100, 2));
+        willReturn(CompletableFuture.completedFuture(response))
+                .given(mockDatamuseRestApi)
+                .soundsLikeAsync(input);
+
+        // when
+        final Collection<SoundsLikeResponseV1> responseItems =
+                soundsLikeCache.soundsLikeAsync(input).join();
+
+        // then
+        assertIterableEquals(response, responseItems);
+        verify(mockDatamuseRestApi, never()).soundsLike(input);
+    }
+
+    @Test
+    void soundsLikeAsync_CachedByBlockingLookup_ResponseServedFromCache() {
+        // given
+        final String input = "ranger";
+        final Collection<SoundsLikeResponseV1> response =
+                List.of(new SoundsLikeResponseV1("ranger", 100, 2));
+        willReturn(response).given(mockDatamuseRestApi).soundsLike(input);
+
+        // when
+        soundsLikeCache.soundsLike(input);
+        final Collection<SoundsLikeResponseV1> responseItems =
+                soundsLikeCache.soundsLikeAsync(input).join();
+
+        // then
+        assertIterableEquals(response, responseItems);
+        verify(mockDatamuseRestApi, never()).soundsLikeAsync(input);
+    }
+
+    @Test
+    void soundsLike_EmptyResponse_ApiNotCalledAgainWithinTtl() {
+        // given
+        willReturn(List.of()).given(mockDatamuseRestApi).soundsLike("qashqai");
+
+        // when
+        soundsLikeCache.soundsLike("qashqai");
+        advance(Duration.ofSeconds(59));
+        final Collection<SoundsLikeResponseV1> responseItems =
+                soundsLikeCache.soundsLike("qashqai");
+
+        // then
+        assertTrue(responseItems.isEmpty());
+        verify(mockDatamuseRestApi, times(1)).soundsLike("qashqai");
+    }
+
+    @Test
+    void soundsLike_ConsecutiveEmptyResponses_TtlDoublesUpToMax() {
+        // given
+        willReturn(List.of()).given(mockDatamuseRestApi).soundsLike("qashqai");
+
+        // when
+        soundsLikeCache.soundsLike("qashqai");
+        advance(Duration.ofMinutes(1));
+        soundsLikeCache.soundsLike("qashqai");
+        advance(Duration.ofSeconds(119));
+        soundsLikeCache.soundsLike("qashqai");
+        advance(Duration.ofSeconds(1));
+        soundsLikeCache.soundsLike("qashqai");
+        advance(Duration.ofMinutes(3));
+        soundsLikeCache.soundsLike("qashqai");
+
+        // then
+        verify(mockDatamuseRestApi, times(4)).soundsLike("qashqai");
+    }
+
+    @Test
+    void soundsLike_ResponseFoundAfterEmptyResponse_ResponseCached() {
+        // given
+        final Collection<SoundsLikeResponseV1> response =
+                List.of(new SoundsLikeResponseV1("corsair", 100, 2));
+        willReturn(List.of()).willReturn(response).given(mockDatamuseRestApi).soundsLike("corsa");
+
+        // when
+        soundsLikeCache.soundsLike("corsa");
+        advance(Duration.ofMinutes(1));
+        soundsLikeCache.soundsLike("corsa");
+        final Collection<SoundsLikeResponseV1> responseItems = soundsLikeCache.soundsLike("corsa");
+
+        // then
+        assertIterableEquals(response, responseItems);
+        verify(mockDatamuseRestApi, times(2)).soundsLike("corsa");
+    }
+
+    @Test
+    void soundsLikeAsync_EmptyResponse_ApiNotCalledAgainWithinTtl() {
+        // given
+        willReturn(CompletableFuture.completedFuture(List.of()))
+                .given(mockDatamuseRestApi)
+                .soundsLikeAsync("qashqai");
+
+        // when
+        soundsLikeCache.soundsLikeAsync("qashqai").join();
+        final Collection<SoundsLikeResponseV1> responseItems =
+                soundsLikeCache.soundsLikeAsync("qashqai").join();
+
+        // then
+        assertTrue(responseItems.isEmpty());
+        verify(mockDatamuseRestApi, times(1)).soundsLikeAsync("qashqai");
+    }
+
+    @Test
+    void soundsLike_CallRejected_ApiCalledAgainWithoutBackoff() {
+        // given
+        willThrow(new DatamuseRestApi.CallRejectedException(new RuntimeException("open")))
+                .willReturn(List.of(new SoundsLikeResponseV1("cougar", 100, 2)))
+                .given(mockDatamuseRestApi)
+                .soundsLike("kuga");
+
+        // when
+        final Collection<SoundsLikeResponseV1> rejected = soundsLikeCache.soundsLike("kuga");
+        final Collection<SoundsLikeResponseV1> responseItems = soundsLikeCache.soundsLike("kuga");
+
+        // then
+        assertTrue(rejected.isEmpty());
+        assertIterableEquals(
+                List.of(new SoundsLikeResponseV1("cougar", 100, 2)), responseItems);
+        verify(mockDatamuseRestApi, times(2)).soundsLike("kuga");
+    }
+
+    @Test
+    void soundsLikeAsync_CallRejected_ApiCalledAgainWithoutBackoff() {
+        // given
+        willReturn(
+                        CompletableFuture.failedFuture(
+                                new DatamuseRestApi.CallRejectedException(
+                                        new RuntimeException("limit reached"))),
+                        CompletableFuture.completedFuture(List.of()))
+                .given(mockDatamuseRestApi)
+                .soundsLikeAsync("puma");
+
+        // when
+        final Collection<SoundsLikeResponseV1> rejected =
+                soundsLikeCache.soundsLikeAsync("puma").join();
+        soundsLikeCache.soundsLikeAsync("puma").join();
+
+        // then
+        assertTrue(rejected.isEmpty());
+        verify(mockDatamuseRestApi, times(2)).soundsLikeAsync("puma");
+    }
+
+    @Test
+    void soundsLike_HitsAndMisses_MetricsRecorded() {
+        // given
+        willReturn(List.of(new SoundsLikeResponseV1("mondo", 100, 2)))
+                .given(mockDatamuseRestApi)
+                .soundsLike("mondeo");
+        willReturn(List.of(new SoundsLikeResponseV1("cougar", 100, 2)))
+                .given(mockDatamuseRestApi)
+                .soundsLike("kuga");
+
+        // when
+        soundsLikeCache.soundsLike("mondeo");
+        soundsLikeCache.soundsLike("mondeo");
+        soundsLikeCache.soundsLike("kuga");
+
+        // then
+        assertEquals(1.0, cacheGets("hit"));
+        assertEquals(2.0, cacheGets("miss"));
+    }
+
+    private void advance(final Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private double cacheGets(final String result) {
+        return meterRegistry
+                .get("cache.gets")
+                .tag("cache", SoundsLikeCache.CACHE_NAME)
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
@@ -0,0 +1,52 @@
+package uk.co.aaronvaz.carsapi.homophones;
+
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.mockito.BDDMockito.willReturn;
+import static org.mockito.Mockito.mock;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+import uk.co.aaronvaz.carsapi.datamuse.SoundsLikeCache;
+import uk.co.aaronvaz.carsapi.datamuse.model.SoundsLikeResponseV1;
+
+class DatamuseHomophoneProviderTest {
+    private final SoundsLikeCache mockSoundsLikeCache = mock(SoundsLikeCache.class);
+
+    private final DatamuseHomophoneProvider provider =
+            new DatamuseHomophoneProvider(mockSoundsLikeCache);
+
+    @Test
+    void homophones_HappyPath_WordsReturnedInResponseOrder() {
+        // given
+        willReturn(
+                        List.of(
+                                new SoundsLikeResponseV1("focus", 100, 2),
+                                new SoundsLikeResponseV1("fokus", 99, 2)))
+                .given(mockSoundsLikeCache)
+                .soundsLike("Focus");
+
+        // when
+        final Collection<String> homophones = provider.homophones("Focus");
+
+        // then
+        assertIterableEquals(List.of("focus", "fokus"), homophones);
+    }
+
+    @Test
+    void homophonesAsync_HappyPath_WordsReturnedInResponseOrder() {
+        // given
+        final List<SoundsLikeResponseV1> response =
+                List.of(new SoundsLikeResponseV1("cougar", 100, 2));
+        willReturn(CompletableFuture.completedFuture(response))
+                .given(mockSoundsLikeCache)
+                .soundsLikeAsync("Kuga");
+
+        // when
+        final Collection<String> homophones = provider.homophonesAsync("Kuga").join();
+
+        // then
+        assertIterableEquals(List.of("cougar"), homophones);
+    }
+}
@@ -0,0 +1,279 @@
+package uk.co.aaronvaz.carsapi.homophones;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willReturn;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.dao.DataIntegrityViolationException;
+import uk.co.aaronvaz.carsapi.model.db.ModelHomophones;
+
+class HomophoneServiceTest {
+    private final ModelHomophonesRepository mockRepository = mock(ModelHomophonesRepository.class);
+
+    private final HomophoneProvider mockHomophoneProvider = mock(HomophoneProvider.class);
+
+    private final HomophoneService homophoneService =
+            new HomophoneService(
+                    mockRepository,
+                    mockHomophoneProvider,
+                    new Binder(
+                                    new MapConfigurationPropertySource(
+                                            Map.of("homophones.max-concurrency", "4")))
+                            .bindOrCreate("homophones", Properties.class));
+
+    @AfterEach
+    void tearDown() {
+        homophoneService.shutdown();
+    }
+
+    @Test
+    void homophonesAsync_HomophonesStored_ReturnedFromDb() {
+        // given
+        willReturn(Optional.of(new ModelHomophones("Focus", "fokus, phocus", Instant.now())))
+                .given(mockRepository)
+                .findById("Focus");
+
+        // when
+        final String homophones =
+                homophoneService.homophonesAsync("Focus", Instant.now().plusSeconds(1)).join();
+
+        // then
+        assertEquals("fokus, phocus", homophones);
+        verify(mockHomophoneProvider, never()).homophones(any());
+    }
+
+    @Test
+    void homophonesAsync_HomophonesNotStored_TopFiveWordsLookedUpAndStored() {
+        // given
+        willReturn(Optional.empty()).given(mockRepository).findById("Focus");
+        willReturn(completedFuture(List.of("focus", "fokus", "phocus", "ficus", "focas", "fucus")))
+                .given(mockHomophoneProvider)
+                .homophonesAsync("Focus");
+
+        // when
+        final String homophones =
+                homophoneService.homophonesAsync("Focus", Instant.now().plusSeconds(1)).join();
+
+        // then
+        assertEquals("focus, fokus, phocus, ficus, focas", homophones);
+        verify(mockHomophoneProvider, never()).homophones(any());
+
+        final ArgumentCaptor<ModelHomophones> captor =
+                ArgumentCaptor.forClass(ModelHomophones.class);
+        verify(mockRepository).save(captor.capture());
+        assertEquals("Focus", captor.getValue().getModel());
+        assertEquals(homophones, captor.getValue().getHomophones());
+    }
+
+    @Test
+    void homophonesAsync_HomophonesStoredConcurrently_LookedUpHomophonesReturned() {
+        // given
+        willReturn(Optional.empty()).given(mockRepository).findById("Focus");
+        willReturn(completedFuture(List.of("fokus")))
+                .given(mockHomophoneProvider)
+                .homophonesAsync("Focus");
+        willThrow(DataIntegrityViolationException.class).given(mockRepository).save(any());
+
+        // when
+        final String homophones =
+                homophoneService.homophonesAsync("Focus", Instant.now().plusSeconds(1)).join();
+
+        // then
+        assertEquals("fokus", homophones);
+    }
+
+    @Test
+    void homophonesAsync_NoHomophonesFound_NothingStored() {
+        // given
+        willReturn(Optional.empty()).given(mockRepository).findById("Qashqai");
+        willReturn(completedFuture(List.of()))
+                .given(mockHomophoneProvider)
+                .homophonesAsync("Qashqai");
+
+        // when
+        final String homophones =
+                homophoneService.homophonesAsync("Qashqai", Instant.now().plusSeconds(1)).join();
+
+        // then
+        assertEquals("", homophones);
+        verify(mockRepository, never()).save(any());
+    }
+
+    @Test
+    void homophones_DuplicateModels_OnlyMissingModelsLookedUpOnce() {
+        // given
+        willReturn(List.of(new ModelHomophones("Focus", "fokus", Instant.now())))
+                .given(mockRepository)
+                .findAllById(Set.of("Focus", "Kuga", "Puma"));
+        willReturn(completedFuture(List.of("cougar")))
+                .given(mockHomophoneProvider)
+                .homophonesAsync("Kuga");
+        willReturn(completedFuture(List.of("pumah")))
+                .given(mockHomophoneProvider)
+                .homophonesAsync("Puma");
+
+        // when
+        final Map<String, String> homophones =
+                homophoneService.homophones(
+                        List.of("Focus", "Kuga", "Focus", "Puma", "Kuga"),
+                        Instant.now().plusSeconds(1));
+
+        // then
+        assertEquals(Map.of("Focus", "fokus", "Kuga", "cougar", "Puma", "pumah"), homophones);
+
+        verify(mockHomophoneProvider, never()).homophonesAsync("Focus");
+        verify(mockHomophoneProvider, times(1)).homophonesAsync("Kuga");
+        verify(mockHomophoneProvider, times(1)).homophonesAsync("Puma");
+        verify(mockRepository, times(2)).save(any());
+    }
+
+    @Test
+    void homophones_NoModels_EmptyMap() {
+        // when
+        final Map<String, String> homophones = 
+                homophoneService.homophones(List.of(), Instant.now().plusSeconds(1));
+
+        // then
+        assertEquals(Map.of(), homophones);
+        verify(mockRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void homophones_LookupNotDoneByDeadline_ModelLeftOutAndStoredLater() {
+        // given
+        final CompletableFuture<List<String>> pumaResponse = new CompletableFuture<>();
+        willReturn(List.of()).given(mockRepository).findAllById(Set.of("Kuga", "Puma"));
+        willReturn(completedFuture(List.of("cougar")))
+                .given(mockHomophoneProvider)
+                .homophonesAsync("Kuga");
+        willReturn(pumaResponse).given(mockHomophoneProvider).homophonesAsync("Puma");
+
+        // when
+        final Map<String, String> homophones =
+                homophoneService.homophones(List.of("Kuga", "Puma"), Instant.now().plusMillis(100));
+        pumaResponse.complete(List.of("pumah"));
+
+        // then
+        assertEquals(Map.of("Kuga", "cougar"), homophones);
+
+        final ArgumentCaptor<ModelHomophones> captor =
+                ArgumentCaptor.forClass(ModelHomophones.class);
+        verify(mockRepository, timeout(1000).times(2)).save(captor.capture());
+        assertEquals(
+                Set.of("cougar", "pumah"),
+                captor.getAllValues().stream()
+                        .map(ModelHomophones::getHomophones)
+                        .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void homophonesAsync_DeadlinePassed_CompletedWithNull() {
+        // given
+        willReturn(Optional.empty()).given(mockRepository).findById("Puma");
+        willReturn(new CompletableFuture<>()).given(mockHomophoneProvider).homophonesAsync("Puma");
+
+        // when
+        final String homophones =
+                homophoneService.homophonesAsync("Puma", Instant.now().minusSeconds(1)).join();
+
+        // then
+        assertNull(homophones);
+    }
+
+    @Test
+    void homophonesAsync_HomophonesStored_ReadOnCallingThreadWhateverTheDeadline() {
+        // given
+        final AtomicReference<Thread> readBy = new AtomicReference<>();
+        willAnswer(
+                        invocation -> {
+                            readBy.set(Thread.currentThread());
+                            return Optional.of(
+                                    new ModelHomophones("Kuga", "cougar", Instant.now()));
+                        })
+                .given(mockRepository)
+                .findById("Kuga");
+
+        // when
+        final CompletableFuture<String> homophones =
+                homophoneService.homophonesAsync("Kuga", Instant.now().minusSeconds(1));
+
+        // then
+        assertTrue(homophones.isDone());
+        assertEquals("cougar", homophones.join());
+        assertSame(Thread.currentThread(), readBy.get());
+        verify(mockHomophoneProvider, never()).homophonesAsync(any());
+    }
+
+    @Test
+    void enrichAsync_HomophonesNotStored_HomophonesStored() {
+        // given
+        willReturn(Optional.empty()).given(mockRepository).findById("Mondeo");
+        willReturn(List.of("mondo")).given(mockHomophoneProvider).homophones("Mondeo");
+
+        // when
+        homophoneService.enrichAsync("Mondeo");
+
+        // then
+        final ArgumentCaptor<ModelHomophones> captor =
+                ArgumentCaptor.forClass(ModelHomophones.class);
+        verify(mockRepository, timeout(1000)).save(captor.capture());
+        assertEquals("mondo", captor.getValue().getHomophones());
+    }
+
+    @Test
+    void enrichAsync_HomophonesAlreadyStored_NothingLookedUp() {
+        // given
+        willReturn(Optional.of(new ModelHomophones("Mondeo", "mondo", Instant.now())))
+                .given(mockRepository)
+                .findById("Mondeo");
+
+        // when
+        homophoneService.enrichAsync("Mondeo");
+
+        // then
+        verify(mockRepository, timeout(1000)).findById("Mondeo");
+        verify(mockHomophoneProvider, never()).homophones(any());
+        verify(mockRepository, never()).save(any());
+    }
+
+    @Test
+    void refresh_MissingAndStaleModels_ModelsReEnriched() {
+        // given
+        willReturn(List.of("Kuga")).given(mockRepository).findModelsWithoutHomophones();
+        willReturn(List.of("Focus")).given(mockRepository).findModelsEnrichedBefore(any());
+        willReturn(List.of("cougar")).given(mockHomophoneProvider).homophones("Kuga");
+        willReturn(List.of("fokus")).given(mockHomophoneProvider).homophones("Focus");
+
+        // when
+        homophoneService.refresh();
+
+        // then
+        verify(mockHomophoneProvider).homophones("Kuga");
+        verify(mockHomophoneProvider).homophones("Focus");
+        verify(mockRepository, times(2)).save(any());
+    }
+}
@@ -0,0 +1,83 @@
+package uk.co.aaronvaz.carsapi.homophones;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+class HomophoneWarmUpTest {
+    private final HomophoneService mockHomophoneService = mock(HomophoneService.class);
+
+    @Test
+    void run_WarmUpEnabled_HomophonesRefreshed() throws Exception {
+        // given
+        final HomophoneWarmUp warmUp = warmUp(Map.of());
+
+        // when
+        warmUp.run(new DefaultApplicationArguments());
+
+        // then
+        verify(mockHomophoneService).refresh();
+    }
+
+    @Test
+    void run_WarmUpDisabled_NothingRefreshed() throws Exception {
+        // given
+        final HomophoneWarmUp warmUp = warmUp(Map.of("homophones.warm-up.enabled", "false"));
+
+        // when
+        warmUp.run(new DefaultApplicationArguments());
+
+        // then
+        verify(mockHomophoneService, never()).refresh();
+    }
+
+    @Test
+    void run_RefreshSlowerThanTimeout_StartupContinues() throws Exception {
+        // given
+        final CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> release.await(5, TimeUnit.SECONDS))
+                .given(mockHomophoneService)
+                .refresh();
+        final HomophoneWarmUp warmUp = warmUp(Map.of("homophones.warm-up.timeout", "50ms"));
+
+        // when
+        warmUp.run(new DefaultApplicationArguments());
+
+        // then
+        assertTrue(release.getCount() > 0);
+        release.countDown();
+    }
+
+    @Test
+    void run_RefreshFails_StartupContinues() {
+        // given
+        willThrow(IllegalStateException.class).given(mockHomophoneService).refresh();
+        final HomophoneWarmUp warmUp = warmUp(Map.of());
+
+        // when
+        final Executable run = () -> warmUp.run(new DefaultApplicationArguments());
+
+        // then
+        assertDoesNotThrow(run);
+    }
+
+    private HomophoneWarmUp warmUp(final Map<String, String> settings) {
+        return new HomophoneWarmUp(
+                mockHomophoneService,
+                new Binder(new MapConfigurationPropertySource(settings))
+                        .bindOrCreate("homophones", Properties.class));
+    }
+}
@@ -0,0 +1,53 @@
+package uk.co.aaronvaz.carsapi.homophones;
+
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import uk.co.aaronvaz.carsapi.model.db.Car;
+import uk.co.aaronvaz.carsapi.model.db.ModelHomophones;
+
+@DataJpaTest
+class ModelHomophonesRepositoryTest {
+
+    @Autowired private ModelHomophonesRepository repository;
+
+    @Autowired private EntityManager entityManager;
+
+    @Test
+    void findModelsWithoutHomophones_HappyPath_MissingModelsFound() {
+        // given
+        entityManager.persist(new Car(UUID.randomUUID(), "Ford", "Focus", "Blue", 2010));
+        entityManager.persist(new Car(UUID.randomUUID(), "Ford", "Kuga", "Blue", 2010));
+        entityManager.persist(new Car(UUID.randomUUID(), "Ford", "Kuga", "Red", 2012));
+        entityManager.persist(new ModelHomophones("Focus", "fokus", Instant.now()));
+
+        // when
+        final Collection<String> models = repository.findModelsWithoutHomophones();
+
+        // then
+        assertIterableEquals(List.of("Kuga"), models);
+    }
+
+    @Test
+    void findModelsEnrichedBefore_HappyPath_StaleModelsFound() {
+        // given
+        final Instant now = Instant.now();
+        entityManager.persist(new ModelHomophones("Focus", "fokus", now));
+        entityManager.persist(new ModelHomophones("Kuga", "cougar", now.minus(Duration.ofDays(8))));
+
+        // when
+        final Collection<String> models =
+                repository.findModelsEnrichedBefore(now.minus(Duration.ofDays(7)));
+
+        // then
+        assertIterableEquals(List.of("Kuga"), models);
+    }
+}
@@ -0,0 +1,58 @@
+package uk.co.aaronvaz.carsapi.homophones;
+
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+class PhoneticHomophoneProviderTest {
+
+    private final PhoneticHomophoneProvider provider =
+            new PhoneticHomophoneProvider(
+                    new Binder(new MapConfigurationPropertySource(Map.of()))
+                            .bindOrCreate("homophones", Properties.class));
+
+    PhoneticHomophoneProviderTest() throws IOException {}
+
+    @Test
+    void homophones_ModelInWordList_ModelFirstThenClosestMatches() {
+        // when
+        final Collection<String> homophones = provider.homophones("Focus");
+
+        // then
+        assertIterableEquals(List.of("focus", "ficus", "fucus", "fix", "fox", "wax"), homophones);
+    }
+
+    @Test
+    void homophones_MatchesSameLength_OrderedAlphabetically() {
+        // when
+        final Collection<String> homophones = provider.homophones("Puma");
+
+        // then
+        assertIterableEquals(List.of("puma", "beam", "boom", "poem"), homophones);
+    }
+
+    @Test
+    void homophones_NoWordsWithSameEncoding_EmptyCollection() {
+        // when
+        final Collection<String> homophones = provider.homophones("Qashqai");
+
+        // then
+        assertTrue(homophones.isEmpty());
+    }
+
+    @Test
+    void homophones_BlankModel_EmptyCollection() {
+        // when
+        final Collection<String> homophones = provider.homophones(" ");
+
+        // then
+        assertTrue(homophones.isEmpty());
+    }
+}